@@ -0,0 +1,88 @@
+package com.softserve.edu.rest.engine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.entity.SimpleArrayEntity;
+import com.softserve.edu.rest.entity.SimpleEntity;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+// Json to entity for payloads of growing size; size is characters for SimpleEntity
+// and array elements for SimpleArrayEntity
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConvertToEntityBenchmark {
+
+    private static final MediaType JSON = MediaType.parse("application/json;charset=UTF-8");
+
+    @Param({ "16", "1024", "65536" })
+    private int size;
+
+    private RestQueries<SimpleEntity> simpleQueries;
+    private RestQueries<SimpleArrayEntity> arrayQueries;
+    private Request request;
+    private byte[] simpleJson;
+    private byte[] arrayJson;
+
+    @Setup
+    public void setUp() {
+        simpleQueries = new RestQueries<SimpleEntity>(RestUrlRepository.getTokenLifetime(), SimpleEntity.class) {
+        };
+        arrayQueries = new RestQueries<SimpleArrayEntity>(RestUrlRepository.getLogin(), SimpleArrayEntity.class) {
+        };
+        request = new Request.Builder().url(RestUrlRepository.getServer()).build();
+        StringBuilder content = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            content.append((char) ('a' + (i % 26)));
+        }
+        simpleJson = ("{\"content\":\"" + content + "\"}").getBytes(StandardCharsets.UTF_8);
+        StringBuilder array = new StringBuilder("{\"content\":[");
+        for (int i = 0; i < size; i++) {
+            array.append(i > 0 ? "," : "").append("\"user").append(i).append('"');
+        }
+        arrayJson = array.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Response response(byte[] json) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(JSON, json))
+                .build();
+    }
+
+    @Benchmark
+    public SimpleEntity simpleEntity() {
+        return simpleQueries.ConvertToEntity(response(simpleJson));
+    }
+
+    @Benchmark
+    public SimpleArrayEntity simpleArrayEntity() {
+        return arrayQueries.ConvertToEntity(response(arrayJson));
+    }
+
+}
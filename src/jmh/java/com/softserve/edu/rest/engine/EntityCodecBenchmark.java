@@ -0,0 +1,75 @@
+package com.softserve.edu.rest.engine;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.reflect.TypeToken;
+import com.softserve.edu.rest.data.Item;
+import com.softserve.edu.rest.entity.SimpleArrayEntity;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+
+// Gson vs Jackson decoding; run with the gc profiler (on in the benchmark profile)
+// to compare gc.alloc.rate.norm, the bytes allocated per operation
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityCodecBenchmark {
+
+    private static final MediaType JSON = MediaType.parse("application/json;charset=UTF-8");
+    private static final Type ITEM_LIST = new TypeToken<List<Item>>() {
+    }.getType();
+
+    @Param({ "gson", "jackson" })
+    private String codecName;
+
+    @Param({ "16", "1024" })
+    private int size;
+
+    private EntityCodec codec;
+    private byte[] arrayJson;
+    private byte[] itemsJson;
+
+    @Setup
+    public void setUp() {
+        codec = codecName.equals("jackson") ? JacksonCodec.getInstance() : GsonCodec.getInstance();
+        StringBuilder array = new StringBuilder("{\"content\":[");
+        StringBuilder items = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            array.append(i > 0 ? "," : "").append("\"user").append(i).append('"');
+            items.append(i > 0 ? "," : "").append("{\"id\":").append(i)
+                    .append(",\"description\":\"item number ").append(i).append("\"}");
+        }
+        arrayJson = array.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        itemsJson = items.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public SimpleArrayEntity simpleArrayEntity() throws Exception {
+        return codec.decode(ResponseBody.create(JSON, arrayJson), SimpleArrayEntity.class);
+    }
+
+    @Benchmark
+    public List<Item> itemList() throws Exception {
+        return codec.decode(ResponseBody.create(JSON, itemsJson), ITEM_LIST);
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.softserve.edu.rest.engine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.softserve.edu.rest.entity.RestParameters;
+
+import okhttp3.Request;
+import okhttp3.RequestBody;
+
+// Client side cost of a request before anything goes to the network
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestPreparationBenchmark {
+
+    private static final String TEMPLATE = "http://localhost:8080/user/{name}/items/{index}";
+
+    private TokenlifetimeResource resource;
+    private RestParameters pathVariables;
+    private RestParameters urlParameters;
+    private RestParameters bodyParameters;
+
+    @Setup
+    public void setUp() {
+        resource = new TokenlifetimeResource();
+        pathVariables = new RestParameters()
+                .addParameter("name", "admin")
+                .addParameter("index", "42");
+        urlParameters = new RestParameters()
+                .addParameter("token", "0123456789ABCDEF0123456789ABCDEF")
+                .addParameter("lang", "uk");
+        bodyParameters = new RestParameters()
+                .addParameter("token", "0123456789ABCDEF0123456789ABCDEF")
+                .addParameter("time", "300000");
+    }
+
+    @Benchmark
+    public String renderUrl() {
+        return UrlTemplate.of(TEMPLATE).render(pathVariables, urlParameters);
+    }
+
+    // Includes HttpUrl parsing done by OkHttp
+    @Benchmark
+    public Request prepareRequest() {
+        return resource.prepareRequestBuilder("GET", TEMPLATE, pathVariables, urlParameters).build();
+    }
+
+    // Cached encoding, as in a loop that sends the same parameters
+    @Benchmark
+    public RequestBody prepareRequestBody() {
+        return resource.prepareRequestBody(bodyParameters);
+    }
+
+    // New parameters every time, as in a loop that sends different values
+    @Benchmark
+    public RequestBody prepareRequestBodyFresh() {
+        return resource.prepareRequestBody(new RestParameters()
+                .addParameter("token", "0123456789ABCDEF0123456789ABCDEF")
+                .addParameter("time", "300000"));
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.softserve.edu.rest.engine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.softserve.edu.rest.entity.RestParameters;
+import com.softserve.edu.rest.entity.SimpleEntity;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+// Whole client stack against LocalTokenServer on loopback, no injected latency
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+
+    private LocalTokenServer server;
+    private TokenlifetimeResource tokenlifetimeResource;
+    private LoginResource loginResource;
+    private RestParameters wrongLogin;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        server = new LocalTokenServer().start().bind();
+        tokenlifetimeResource = new TokenlifetimeResource();
+        loginResource = new LoginResource();
+        // A failed login leaves no session behind on the server
+        wrongLogin = new RestParameters()
+                .addParameter("name", "admin")
+                .addParameter("password", "wrong");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.stop();
+        HttpClientRegistry.reset();
+    }
+
+    @Benchmark
+    public SimpleEntity getTokenlifetime() {
+        return tokenlifetimeResource.httpGetAsEntity(null, null);
+    }
+
+    @Benchmark
+    public SimpleEntity postLogin() {
+        return loginResource.httpPostAsEntity(null, null, wrongLogin);
+    }
+
+}
@@ -5,6 +5,10 @@ public class Item {
     private long id;
     private String description;
 
+    // For json codecs
+    private Item() {
+    }
+
     public Item(long id, String description) {
         this.id = id;
         this.description = description;
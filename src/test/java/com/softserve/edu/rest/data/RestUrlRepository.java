@@ -16,7 +16,12 @@ public final class RestUrlRepository {
     }
 
     // Resource Loggined User
+    // The variants with a server argument do not read the shared server above
     public static RestUrl getLogin() {
+        return getLogin(server);
+    }
+
+    public static RestUrl getLogin(String server) {
         return new RestUrl()
                 .addUrlServer(server)
                 .addUriGet("/login/users")
@@ -27,6 +32,10 @@ public final class RestUrlRepository {
     }
 
     public static RestUrl getLogout() {
+        return getLogout(server);
+    }
+
+    public static RestUrl getLogout(String server) {
         return new RestUrl()
                 .addUrlServer(server)
                 .addUriGet("")
@@ -36,6 +45,10 @@ public final class RestUrlRepository {
     }
 
     public static RestUrl getTokenLifetime() {
+        return getTokenLifetime(server);
+    }
+
+    public static RestUrl getTokenLifetime(String server) {
         return new RestUrl()
                 .addUrlServer(server)
                 .addUriGet("tokenlifetime/")
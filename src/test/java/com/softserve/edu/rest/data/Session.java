@@ -0,0 +1,62 @@
+package com.softserve.edu.rest.data;
+
+// Logged in user: name, password, token and the server that issued the token.
+// Immutable, so one Session can be used by many threads and flows at once.
+// A shared session holds a TokenManager token that other flows use as well.
+public final class Session {
+
+    private final String name;
+    private final String password;
+    private final String token;
+    private final String server;
+    private final boolean shared;
+
+    public Session(User user, String token, String server, boolean shared) {
+        this.name = user.getName();
+        this.password = user.getPassword();
+        this.token = token;
+        this.server = server;
+        this.shared = shared;
+    }
+
+    public Session(User user, String token, String server) {
+        this(user, token, server, false);
+    }
+
+    public Session withToken(String token) {
+        return new Session(getUser(), token, server, shared);
+    }
+
+    // getters
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    // A new copy every time
+    public User getUser() {
+        return new User(name, password).setToken(token);
+    }
+
+    @Override
+    public String toString() {
+        return "Session [name=" + name + ", token=" + token + ", server=" + server + ", shared=" + shared + "]";
+    }
+
+}
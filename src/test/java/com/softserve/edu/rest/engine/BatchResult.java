@@ -0,0 +1,57 @@
+package com.softserve.edu.rest.engine;
+
+import com.softserve.edu.rest.entity.RestParameters;
+
+public class BatchResult<T> {
+
+    private final int index;
+    private final RestParameters parameters;
+    private final T entity;
+    private final Throwable error;
+    private final long latencyNanos;
+
+    public BatchResult(int index, RestParameters parameters, T entity, Throwable error, long latencyNanos) {
+        this.index = index;
+        this.parameters = parameters;
+        this.entity = entity;
+        this.error = error;
+        this.latencyNanos = latencyNanos;
+    }
+
+    // getters
+
+    public int getIndex() {
+        return index;
+    }
+
+    public RestParameters getParameters() {
+        return parameters;
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public double getLatencyMillis() {
+        return latencyNanos / 1000000.0;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult [index=" + index + ", entity=" + entity + ", error=" + error
+                + ", latencyMillis=" + String.format("%.3f", getLatencyMillis()) + "]";
+    }
+
+}
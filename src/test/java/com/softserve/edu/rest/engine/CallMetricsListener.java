@@ -0,0 +1,95 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+// One listener per call: phase timings and byte counts go to RestMetrics,
+// connection events go on to the ConnectionCounter of the server
+public class CallMetricsListener extends EventListener {
+
+    private final ConnectionCounter connectionCounter;
+    private EndpointMetrics endpointMetrics;
+    private long callStartNanos;
+    private long dnsStartNanos;
+    private long connectStartNanos;
+
+    public CallMetricsListener(ConnectionCounter connectionCounter) {
+        this.connectionCounter = connectionCounter;
+    }
+
+    public static EventListener.Factory factory(ConnectionCounter connectionCounter) {
+        return call -> new CallMetricsListener(connectionCounter);
+    }
+
+    @Override
+    public void callStart(Call call) {
+        endpointMetrics = RestMetrics.get(call.request());
+        callStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        endpointMetrics.recordDns(System.nanoTime() - dnsStartNanos);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        endpointMetrics.recordConnect(System.nanoTime() - connectStartNanos);
+        connectionCounter.connectEnd(call, inetSocketAddress, proxy, protocol);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+            IOException ioe) {
+        connectionCounter.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        connectionCounter.connectionAcquired(call, connection);
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        endpointMetrics.recordRequestBytes(byteCount);
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        endpointMetrics.recordTimeToFirstByte(System.nanoTime() - callStartNanos);
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        endpointMetrics.recordResponseBytes(byteCount);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        endpointMetrics.recordTotal(System.nanoTime() - callStartNanos);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        endpointMetrics.recordFailure(call.isCanceled());
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Application interceptor, registered first. OkHttp 3.11 looks at cancel() once more
+// after the interceptors have returned the Response of an async call; when it was
+// cancelled just then, the Callback gets onFailure "Canceled" and the Response is
+// never closed, so its connection stays checked out. Async calls carry a Delivery
+// tag, the Response is left there and onFailure closes it with closeDropped().
+public class CancelledCallInterceptor implements Interceptor {
+
+    private static final class Delivery {
+        private volatile Response response;
+    }
+
+    static Request track(Request request) {
+        return request.newBuilder().tag(Delivery.class, new Delivery()).build();
+    }
+
+    static void closeDropped(Call call) {
+        Delivery delivery = call.request().tag(Delivery.class);
+        if ((delivery != null) && (delivery.response != null)) {
+            delivery.response.close();
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        Delivery delivery = chain.request().tag(Delivery.class);
+        if (delivery != null) {
+            delivery.response = response;
+        }
+        return response;
+    }
+
+}
@@ -0,0 +1,410 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+// Recorded request/response pairs on disk: <name>.data is append-only,
+// <name>.index has one "digest offset" line per record.
+// Requests match by method, path and parameters; host and port are not part of
+// the key, so a cassette recorded against a local server on a random port replays anywhere.
+// Strict matching compares the query and body as sent, lenient matching compares
+// sorted parameters without the ignored ones. Equal requests replay in recorded order,
+// the last answer repeats.
+public class Cassette {
+
+    public enum Mode {
+        RECORD, REPLAY
+    }
+
+    public enum Matching {
+        STRICT, LENIENT
+    }
+
+    private static final String DATA_SUFFIX = ".data";
+    private static final String INDEX_SUFFIX = ".index";
+    private static final MediaType FORM_MEDIA_TYPE = MediaType.parse("application/x-www-form-urlencoded");
+
+    private static volatile Cassette defaultCassette;
+
+    private static final class Recorded {
+        private final List<Integer> offsets;
+        private final AtomicInteger cursor;
+
+        private Recorded() {
+            offsets = new ArrayList<>();
+            cursor = new AtomicInteger();
+        }
+
+        private int next() {
+            int index = cursor.getAndIncrement();
+            return offsets.get(Math.min(index, offsets.size() - 1));
+        }
+    }
+
+    private final Path dataPath;
+    private final Path indexPath;
+    private final Mode mode;
+    private final Matching matching;
+    private final Set<String> ignoredParameters;
+    private final AtomicLong recorded;
+    private final AtomicLong replayed;
+    private final AtomicLong missed;
+    // Record
+    private OutputStream dataOutput;
+    private BufferedWriter indexWriter;
+    private long dataLength;
+    // Replay
+    private MappedByteBuffer data;
+    private Map<String, Recorded> records;
+
+    private Cassette(Path path, Mode mode, Matching matching, Set<String> ignoredParameters) {
+        dataPath = Paths.get(path.toString() + DATA_SUFFIX);
+        indexPath = Paths.get(path.toString() + INDEX_SUFFIX);
+        this.mode = mode;
+        this.matching = matching;
+        this.ignoredParameters = ignoredParameters;
+        recorded = new AtomicLong();
+        replayed = new AtomicLong();
+        missed = new AtomicLong();
+    }
+
+    // Appends to an existing cassette
+    public static Cassette record(Path path) {
+        Cassette cassette = new Cassette(path, Mode.RECORD, Matching.STRICT, Collections.emptySet());
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            cassette.dataOutput = Files.newOutputStream(cassette.dataPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            cassette.indexWriter = Files.newBufferedWriter(cassette.indexPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            cassette.dataLength = Files.size(cassette.dataPath);
+        } catch (IOException e) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Cassette " + path + " can not be opened for record " + e.toString());
+        }
+        return cassette;
+    }
+
+    // Parameters such as "token" can be left out of lenient matching
+    public static Cassette replay(Path path, Matching matching, String... ignoredParameters) {
+        Set<String> ignored = new HashSet<>();
+        Collections.addAll(ignored, ignoredParameters);
+        Cassette cassette = new Cassette(path, Mode.REPLAY, matching, ignored);
+        try (FileChannel channel = FileChannel.open(cassette.dataPath, StandardOpenOption.READ)) {
+            cassette.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Cassette " + path + " can not be opened for replay " + e.toString());
+        }
+        cassette.loadIndex();
+        return cassette;
+    }
+
+    // Used by every resource that has no cassette of its own; null switches it off
+    public static Cassette getDefault() {
+        return defaultCassette;
+    }
+
+    public static void setDefault(Cassette cassette) {
+        defaultCassette = cassette;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // Keys - - - - - - - - - - - - - - - - - - - -
+
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder result = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                result.append(Character.forDigit((b >> 4) & 0x0F, 16)).append(Character.forDigit(b & 0x0F, 16));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String requestBodyText(Request request) throws IOException {
+        if (request.body() == null) {
+            return "";
+        }
+        if (request.body() instanceof StreamingMultipartBody) {
+            return ((StreamingMultipartBody) request.body()).describe();
+        }
+        Buffer buffer = new Buffer();
+        request.body().writeTo(buffer);
+        return buffer.readUtf8();
+    }
+
+    private static boolean isForm(Request request) {
+        MediaType contentType = (request.body() == null) ? null : request.body().contentType();
+        return (contentType != null) && contentType.type().equals(FORM_MEDIA_TYPE.type())
+                && contentType.subtype().equals(FORM_MEDIA_TYPE.subtype());
+    }
+
+    private static String strictKey(String method, String path, String query, String body) {
+        return digest(method + ' ' + path + '?' + query + '\n' + body);
+    }
+
+    // "q:" and "f:" keep query and form parameters of the same name apart
+    private static List<String> parameters(HttpUrl url, String formBody) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < url.querySize(); i++) {
+            String value = url.queryParameterValue(i);
+            result.add("q:" + url.queryParameterName(i) + '=' + (value == null ? "" : value));
+        }
+        if (formBody != null) {
+            HttpUrl form = HttpUrl.parse("http://localhost/?" + formBody);
+            for (int i = 0; (form != null) && (i < form.querySize()); i++) {
+                String value = form.queryParameterValue(i);
+                result.add("f:" + form.queryParameterName(i) + '=' + (value == null ? "" : value));
+            }
+        }
+        return result;
+    }
+
+    private String lenientKey(String method, String path, List<String> parameters) {
+        List<String> canonical = new ArrayList<>();
+        for (String parameter : parameters) {
+            String name = parameter.substring(2, parameter.indexOf('='));
+            if (!ignoredParameters.contains(name)) {
+                canonical.add(parameter);
+            }
+        }
+        Collections.sort(canonical);
+        return digest(method + ' ' + path + '\n' + String.join("&", canonical));
+    }
+
+    private String key(String method, String path, List<String> parameters, String strictKey) {
+        return (matching == Matching.STRICT) ? strictKey : lenientKey(method, path, parameters);
+    }
+
+    // Record - - - - - - - - - - - - - - - - - - - -
+
+    Response record(Request request, Response response) throws IOException {
+        String body = requestBodyText(request);
+        HttpUrl url = request.url();
+        String query = (url.encodedQuery() == null) ? "" : url.encodedQuery();
+        byte[] responseBody = (response.body() == null) ? new byte[0] : response.body().bytes();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(responseBody.length + 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, strictKey(request.method(), url.encodedPath(), query, body));
+            writeString(out, request.method());
+            writeString(out, url.encodedPath());
+            List<String> parameters = parameters(url, isForm(request) ? body : null);
+            out.writeInt(parameters.size());
+            for (String parameter : parameters) {
+                writeString(out, parameter);
+            }
+            out.writeInt(response.code());
+            writeString(out, response.message());
+            Headers headers = response.headers();
+            out.writeInt(headers.size());
+            for (int i = 0; i < headers.size(); i++) {
+                writeString(out, headers.name(i));
+                writeString(out, headers.value(i));
+            }
+            MediaType contentType = (response.body() == null) ? null : response.body().contentType();
+            writeString(out, (contentType == null) ? "" : contentType.toString());
+            out.writeInt(responseBody.length);
+            out.write(responseBody);
+        }
+        append(bytes.toByteArray());
+        recorded.incrementAndGet();
+        return response.newBuilder()
+                .body(ResponseBody.create(response.body() == null ? null : response.body().contentType(),
+                        responseBody))
+                .build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private synchronized void append(byte[] record) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4).putInt(record.length);
+        dataOutput.write(header.array());
+        dataOutput.write(record);
+        dataOutput.flush();
+        // The strict digest opens every record
+        String strictKey = new String(record, 4, ByteBuffer.wrap(record).getInt(), StandardCharsets.UTF_8);
+        indexWriter.write(strictKey + ' ' + dataLength);
+        indexWriter.newLine();
+        indexWriter.flush();
+        dataLength += 4 + record.length;
+    }
+
+    // Replay - - - - - - - - - - - - - - - - - - - -
+
+    private void loadIndex() {
+        records = new HashMap<>();
+        List<String> digests = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        if (Files.exists(indexPath)) {
+            try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        digests.add(line.substring(0, line.indexOf(' ')));
+                        offsets.add(Integer.parseInt(line.substring(line.indexOf(' ') + 1)));
+                    }
+                }
+            } catch (IOException | NumberFormatException | StringIndexOutOfBoundsException e) {
+                digests.clear();
+                offsets.clear();
+            }
+        }
+        if (offsets.isEmpty()) {
+            // No usable index, the data file is walked record by record
+            for (int offset = 0; offset < data.limit(); offset += 4 + data.getInt(offset)) {
+                offsets.add(offset);
+            }
+        }
+        for (int i = 0; i < offsets.size(); i++) {
+            int offset = offsets.get(i);
+            if ((matching == Matching.STRICT) && (!digests.isEmpty())) {
+                // The index already has the strict digest, the record is read on replay only
+                records.computeIfAbsent(digests.get(i), key -> new Recorded()).offsets.add(offset);
+                continue;
+            }
+            ByteBuffer record = recordAt(offset);
+            String strictKey = readString(record);
+            String method = readString(record);
+            String path = readString(record);
+            List<String> parameters = new ArrayList<>();
+            for (int count = record.getInt(); count > 0; count--) {
+                parameters.add(readString(record));
+            }
+            records.computeIfAbsent(key(method, path, parameters, strictKey), key -> new Recorded())
+                    .offsets.add(offset);
+        }
+    }
+
+    private ByteBuffer recordAt(int offset) {
+        ByteBuffer record = data.duplicate();
+        record.position(offset + 4);
+        record.limit(offset + 4 + data.getInt(offset));
+        return record.slice();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // null if nothing was recorded for the request
+    Response replay(Request request) throws IOException {
+        String body = requestBodyText(request);
+        HttpUrl url = request.url();
+        String query = (url.encodedQuery() == null) ? "" : url.encodedQuery();
+        String key = key(request.method(), url.encodedPath(), parameters(url, isForm(request) ? body : null),
+                strictKey(request.method(), url.encodedPath(), query, body));
+        Recorded recordedResponses = records.get(key);
+        if (recordedResponses == null) {
+            missed.incrementAndGet();
+            return null;
+        }
+        ByteBuffer record = recordAt(recordedResponses.next());
+        readString(record);
+        readString(record);
+        readString(record);
+        for (int count = record.getInt(); count > 0; count--) {
+            readString(record);
+        }
+        int code = record.getInt();
+        String message = readString(record);
+        Headers.Builder headers = new Headers.Builder();
+        for (int count = record.getInt(); count > 0; count--) {
+            headers.add(readString(record), readString(record));
+        }
+        String contentType = readString(record);
+        byte[] responseBody = new byte[record.getInt()];
+        record.get(responseBody);
+        replayed.incrementAndGet();
+        long now = System.currentTimeMillis();
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message(message)
+                .headers(headers.build())
+                .body(ResponseBody.create(contentType.isEmpty() ? null : MediaType.parse(contentType), responseBody))
+                .sentRequestAtMillis(now)
+                .receivedResponseAtMillis(now)
+                .build();
+    }
+
+    public synchronized void close() {
+        try {
+            if (dataOutput != null) {
+                dataOutput.close();
+                indexWriter.close();
+            }
+        } catch (IOException e) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Cassette " + dataPath + " can not be closed " + e.toString());
+        }
+    }
+
+    // Statistics - - - - - - - - - - - - - - - - - - - -
+
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    public long getReplayed() {
+        return replayed.get();
+    }
+
+    public long getMissed() {
+        return missed.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Cassette [data=" + dataPath + ", mode=" + mode + ", matching=" + matching
+                + ", recorded=" + getRecorded() + ", replayed=" + getReplayed() + ", missed=" + getMissed() + "]";
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Application interceptor; the Cassette comes with the request as a tag.
+// Registered before CompressionInterceptor, so bodies are stored decoded.
+public class CassetteInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Cassette cassette = request.tag(Cassette.class);
+        if (cassette == null) {
+            return chain.proceed(request);
+        }
+        if (cassette.getMode() == Cassette.Mode.REPLAY) {
+            Response response = cassette.replay(request);
+            if (response == null) {
+                throw new IOException("No recorded response for " + request.method() + " " + request.url());
+            }
+            return response;
+        }
+        return cassette.record(request, chain.proceed(request));
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.softserve.edu.rest.engine;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.Protocol;
+
+public class ClientSettings {
+
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 16;
+    public static final long DEFAULT_KEEP_ALIVE_MILLIS = 300000L;
+    public static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 10000L;
+    public static final long DEFAULT_READ_TIMEOUT_MILLIS = 30000L;
+    public static final int DEFAULT_MAX_REQUESTS = 256;
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 64;
+    public static final long DEFAULT_REQUEST_COMPRESSION_MIN_BYTES = -1L;
+
+    private int maxIdleConnections;
+    private long keepAliveMillis;
+    private long connectTimeoutMillis;
+    private long readTimeoutMillis;
+    private int maxRequests;
+    private int maxRequestsPerHost;
+    private boolean http2;
+    private boolean http2PriorKnowledge;
+    private int prewarmConnections;
+    private boolean responseCompression;
+    private long requestCompressionMinBytes;
+
+    public ClientSettings() {
+        maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+        keepAliveMillis = DEFAULT_KEEP_ALIVE_MILLIS;
+        connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+        readTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+        maxRequests = DEFAULT_MAX_REQUESTS;
+        maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+        http2 = true;
+        http2PriorKnowledge = false;
+        prewarmConnections = 0;
+        responseCompression = true;
+        requestCompressionMinBytes = DEFAULT_REQUEST_COMPRESSION_MIN_BYTES;
+    }
+
+    // setters
+
+    public ClientSettings setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+        return this;
+    }
+
+    public ClientSettings setKeepAliveMillis(long keepAliveMillis) {
+        this.keepAliveMillis = keepAliveMillis;
+        return this;
+    }
+
+    public ClientSettings setConnectTimeoutMillis(long connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        return this;
+    }
+
+    public ClientSettings setReadTimeoutMillis(long readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+        return this;
+    }
+
+    public ClientSettings setMaxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+        return this;
+    }
+
+    public ClientSettings setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        return this;
+    }
+
+    // HTTP/2 is negotiated by ALPN, so it takes effect on https servers only
+    public ClientSettings setHttp2(boolean http2) {
+        this.http2 = http2;
+        return this;
+    }
+
+    // Cleartext HTTP/2 (h2c); use only for servers known to support it
+    public ClientSettings setHttp2PriorKnowledge(boolean http2PriorKnowledge) {
+        this.http2PriorKnowledge = http2PriorKnowledge;
+        return this;
+    }
+
+    public ClientSettings setPrewarmConnections(int prewarmConnections) {
+        this.prewarmConnections = prewarmConnections;
+        return this;
+    }
+
+    // Asks for gzip, deflate (and br when a Brotli decoder is on the classpath)
+    public ClientSettings setResponseCompression(boolean responseCompression) {
+        this.responseCompression = responseCompression;
+        return this;
+    }
+
+    // Request bodies of at least this size are sent gzipped; negative switches it off.
+    // The server must accept Content-Encoding: gzip.
+    public ClientSettings setRequestCompressionMinBytes(long requestCompressionMinBytes) {
+        this.requestCompressionMinBytes = requestCompressionMinBytes;
+        return this;
+    }
+
+    // getters
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public boolean isHttp2PriorKnowledge() {
+        return http2PriorKnowledge;
+    }
+
+    public int getPrewarmConnections() {
+        return prewarmConnections;
+    }
+
+    public boolean isResponseCompression() {
+        return responseCompression;
+    }
+
+    public long getRequestCompressionMinBytes() {
+        return requestCompressionMinBytes;
+    }
+
+    public List<Protocol> getProtocols() {
+        if (http2PriorKnowledge) {
+            return Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE);
+        }
+        if (http2) {
+            return Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1);
+        }
+        return Collections.singletonList(Protocol.HTTP_1_1);
+    }
+
+    @Override
+    public String toString() {
+        return "ClientSettings [maxIdleConnections=" + maxIdleConnections
+                + ", keepAliveMillis=" + keepAliveMillis
+                + ", maxRequests=" + maxRequests
+                + ", maxRequestsPerHost=" + maxRequestsPerHost
+                + ", protocols=" + getProtocols()
+                + ", prewarmConnections=" + prewarmConnections
+                + ", responseCompression=" + responseCompression
+                + ", requestCompressionMinBytes=" + requestCompressionMinBytes + "]";
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.util.zip.Inflater;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.internal.http.HttpHeaders;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.InflaterSource;
+import okio.Okio;
+import okio.Source;
+
+// Application interceptor for content codings.
+// OkHttp itself only asks for gzip and hides the compressed size; here the
+// Accept-Encoding header is set by us, so OkHttp hands the coded body over
+// and we decode it. EndpointMetrics then has wire bytes (from the event
+// listener) next to raw bytes (counted here).
+public class CompressionInterceptor implements Interceptor {
+
+    private static final String BROTLI_INPUT_STREAM = "org.brotli.dec.BrotliInputStream";
+    private static final Constructor<?> brotliConstructor = findBrotli();
+
+    private final boolean responseCompression;
+    private final long requestCompressionMinBytes;
+    private final String acceptEncoding;
+
+    public CompressionInterceptor(boolean responseCompression, long requestCompressionMinBytes) {
+        this.responseCompression = responseCompression;
+        this.requestCompressionMinBytes = requestCompressionMinBytes;
+        acceptEncoding = (brotliConstructor == null) ? "gzip, deflate" : "gzip, deflate, br";
+    }
+
+    public CompressionInterceptor(ClientSettings settings) {
+        this(settings.isResponseCompression(), settings.getRequestCompressionMinBytes());
+    }
+
+    // Pure Java Brotli decoder (org.brotli:dec) is optional
+    private static Constructor<?> findBrotli() {
+        try {
+            return Class.forName(BROTLI_INPUT_STREAM).getConstructor(InputStream.class);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    public static boolean isBrotliAvailable() {
+        return brotliConstructor != null;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        EndpointMetrics endpointMetrics = RestMetrics.get(request);
+        Request.Builder requestBuilder = request.newBuilder();
+        RequestBody requestBody = request.body();
+        if (requestBody != null) {
+            long rawLength = requestBody.contentLength();
+            endpointMetrics.recordRequestRawBytes(Math.max(rawLength, 0));
+            // Streamed uploads are not gzipped, that would buffer the whole file
+            if ((requestCompressionMinBytes >= 0) && (rawLength >= requestCompressionMinBytes)
+                    && (request.header("Content-Encoding") == null)
+                    && (!(requestBody instanceof StreamingMultipartBody))) {
+                endpointMetrics.recordCompressedRequest();
+                requestBuilder.header("Content-Encoding", "gzip")
+                        .method(request.method(), gzip(requestBody));
+            }
+        }
+        if (responseCompression && (request.header("Accept-Encoding") == null)) {
+            requestBuilder.header("Accept-Encoding", acceptEncoding);
+        }
+        Response response = chain.proceed(requestBuilder.build());
+        // HEAD, 204 and 304 have no body to decode, their Content-Length stays
+        if ((response.body() == null) || (!HttpHeaders.hasBody(response))) {
+            return response;
+        }
+        BufferedSource source = response.body().source();
+        Source decoded = decode(response.header("Content-Encoding"), source);
+        if (decoded == source) {
+            return response.newBuilder()
+                    .body(new CountingBody(response.body(), source, response.body().contentLength(),
+                            endpointMetrics))
+                    .build();
+        }
+        endpointMetrics.recordCompressedResponse();
+        return response.newBuilder()
+                .removeHeader("Content-Encoding")
+                .removeHeader("Content-Length")
+                .body(new CountingBody(response.body(), decoded, -1, endpointMetrics))
+                .build();
+    }
+
+    // Unknown or identity coding is passed through as is
+    private Source decode(String contentEncoding, BufferedSource source) throws IOException {
+        if (contentEncoding == null) {
+            return source;
+        }
+        switch (contentEncoding.trim().toLowerCase()) {
+        case "gzip":
+        case "x-gzip":
+            return new GzipSource(source);
+        case "deflate":
+            return new InflaterSource(source, new Inflater(!isZlibWrapped(source)));
+        case "br":
+            if (brotliConstructor != null) {
+                try {
+                    return Okio.source((InputStream) brotliConstructor.newInstance(source.inputStream()));
+                } catch (ReflectiveOperationException e) {
+                    throw new IOException("Brotli decoder failed " + e.toString(), e);
+                }
+            }
+            return source;
+        default:
+            return source;
+        }
+    }
+
+    // "deflate" is zlib data by the RFC, but some servers send raw deflate
+    private boolean isZlibWrapped(BufferedSource source) throws IOException {
+        if (!source.request(2)) {
+            return false;
+        }
+        int cmf = source.buffer().getByte(0) & 0xFF;
+        int flg = source.buffer().getByte(1) & 0xFF;
+        return ((cmf & 0x0F) == 8) && (((cmf << 8) | flg) % 31 == 0);
+    }
+
+    private RequestBody gzip(RequestBody requestBody) throws IOException {
+        Buffer compressed = new Buffer();
+        try (BufferedSink gzipSink = Okio.buffer(new GzipSink(compressed))) {
+            requestBody.writeTo(gzipSink);
+        }
+        MediaType contentType = requestBody.contentType();
+        return RequestBody.create(contentType, compressed.readByteString());
+    }
+
+    // Counts decoded bytes as the caller reads them
+    private static final class CountingBody extends ResponseBody {
+        private final ResponseBody original;
+        private final BufferedSource source;
+        private final long contentLength;
+
+        private CountingBody(ResponseBody original, Source decoded, long contentLength,
+                EndpointMetrics endpointMetrics) {
+            this.original = original;
+            this.contentLength = contentLength;
+            source = Okio.buffer(new ForwardingSource(decoded) {
+                private long rawBytes;
+                private boolean recorded;
+
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read > 0) {
+                        rawBytes += read;
+                    } else if (read == -1) {
+                        record();
+                    }
+                    return read;
+                }
+
+                // Json readers stop at the end of the document and close without reading to -1
+                @Override
+                public void close() throws IOException {
+                    record();
+                    super.close();
+                }
+
+                private void record() {
+                    if (!recorded) {
+                        recorded = true;
+                        endpointMetrics.recordResponseRawBytes(rawBytes);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return original.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+
+        @Override
+        public void close() {
+            try {
+                source.close();
+            } catch (IOException e) {
+                original.close();
+            }
+        }
+    }
+
+}
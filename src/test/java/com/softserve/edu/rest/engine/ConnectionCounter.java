@@ -0,0 +1,80 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+// Shared by all calls of one client, so it keeps counters only
+public class ConnectionCounter extends EventListener {
+
+    private final String server;
+    private final AtomicLong newConnections;
+    private final AtomicLong failedConnections;
+    private final AtomicLong acquiredConnections;
+
+    public ConnectionCounter(String server) {
+        this.server = server;
+        newConnections = new AtomicLong();
+        failedConnections = new AtomicLong();
+        acquiredConnections = new AtomicLong();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        newConnections.incrementAndGet();
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+            IOException ioe) {
+        failedConnections.incrementAndGet();
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        acquiredConnections.incrementAndGet();
+    }
+
+    // getters
+
+    public String getServer() {
+        return server;
+    }
+
+    public long getNewConnections() {
+        return newConnections.get();
+    }
+
+    public long getFailedConnections() {
+        return failedConnections.get();
+    }
+
+    public long getAcquiredConnections() {
+        return acquiredConnections.get();
+    }
+
+    public long getReusedConnections() {
+        return Math.max(0, acquiredConnections.get() - newConnections.get());
+    }
+
+    public double getReuseRatio() {
+        long acquired = acquiredConnections.get();
+        return acquired == 0 ? 0 : (double) getReusedConnections() / acquired;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionCounter [server=" + server
+                + ", new=" + getNewConnections()
+                + ", reused=" + getReusedConnections()
+                + ", failed=" + getFailedConnections()
+                + ", reuseRatio=" + String.format("%.3f", getReuseRatio()) + "]";
+    }
+
+}
@@ -0,0 +1,334 @@
+package com.softserve.edu.rest.engine;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// Counters and latency histograms (microseconds) of one verb on one resource url.
+// Recording never takes a lock.
+public class EndpointMetrics {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = 3600L * 1000000L;
+
+    private final String method;
+    private final String urlTemplate;
+    private final Histogram dns;
+    private final Histogram connect;
+    private final Histogram timeToFirstByte;
+    private final Histogram total;
+    private final LongAdder calls;
+    private final LongAdder failures;
+    private final LongAdder cancelled;
+    private final LongAdder requestBytes;
+    private final LongAdder responseBytes;
+    private final LongAdder requestRawBytes;
+    private final LongAdder responseRawBytes;
+    private final LongAdder compressedRequests;
+    private final LongAdder compressedResponses;
+    private final Map<Integer, LongAdder> statusCodes;
+
+    public EndpointMetrics(String method, String urlTemplate) {
+        this.method = method;
+        this.urlTemplate = urlTemplate;
+        dns = newHistogram();
+        connect = newHistogram();
+        timeToFirstByte = newHistogram();
+        total = newHistogram();
+        calls = new LongAdder();
+        failures = new LongAdder();
+        cancelled = new LongAdder();
+        requestBytes = new LongAdder();
+        responseBytes = new LongAdder();
+        requestRawBytes = new LongAdder();
+        responseRawBytes = new LongAdder();
+        compressedRequests = new LongAdder();
+        compressedResponses = new LongAdder();
+        statusCodes = new ConcurrentHashMap<>();
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 2);
+    }
+
+    private static void record(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.max(0, Math.min(nanos / 1000, HIGHEST_TRACKABLE_MICROS)));
+    }
+
+    public void recordDns(long nanos) {
+        record(dns, nanos);
+    }
+
+    public void recordConnect(long nanos) {
+        record(connect, nanos);
+    }
+
+    public void recordTimeToFirstByte(long nanos) {
+        record(timeToFirstByte, nanos);
+    }
+
+    public void recordTotal(long nanos) {
+        calls.increment();
+        record(total, nanos);
+    }
+
+    public void recordFailure(boolean isCancelled) {
+        if (isCancelled) {
+            cancelled.increment();
+        } else {
+            failures.increment();
+        }
+    }
+
+    public void recordRequestBytes(long bytes) {
+        requestBytes.add(bytes);
+    }
+
+    public void recordResponseBytes(long bytes) {
+        responseBytes.add(bytes);
+    }
+
+    // Raw bytes are the body before compression / after decompression
+    public void recordRequestRawBytes(long bytes) {
+        requestRawBytes.add(bytes);
+    }
+
+    public void recordResponseRawBytes(long bytes) {
+        responseRawBytes.add(bytes);
+    }
+
+    public void recordCompressedRequest() {
+        compressedRequests.increment();
+    }
+
+    public void recordCompressedResponse() {
+        compressedResponses.increment();
+    }
+
+    public void recordStatus(int code) {
+        statusCodes.computeIfAbsent(code, key -> new LongAdder()).increment();
+    }
+
+    // getters
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrlTemplate() {
+        return urlTemplate;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    // Plain values, safe to print or to serialize with Gson
+    public static class Snapshot {
+        // Not serialized, only tells whether an earlier snapshot can be subtracted
+        private final transient EndpointMetrics source;
+        private final String method;
+        private final String urlTemplate;
+        private final long calls;
+        private final long failures;
+        private final long cancelled;
+        private final long requestBytes;
+        private final long responseBytes;
+        private final long requestRawBytes;
+        private final long responseRawBytes;
+        private final long compressedRequests;
+        private final long compressedResponses;
+        private final Map<Integer, Long> statusCodes;
+        private final Percentiles dnsMillis;
+        private final Percentiles connectMillis;
+        private final Percentiles timeToFirstByteMillis;
+        private final Percentiles totalMillis;
+
+        private Snapshot(EndpointMetrics metrics) {
+            source = metrics;
+            method = metrics.method;
+            urlTemplate = metrics.urlTemplate;
+            calls = metrics.calls.sum();
+            failures = metrics.failures.sum();
+            cancelled = metrics.cancelled.sum();
+            requestBytes = metrics.requestBytes.sum();
+            responseBytes = metrics.responseBytes.sum();
+            requestRawBytes = metrics.requestRawBytes.sum();
+            responseRawBytes = metrics.responseRawBytes.sum();
+            compressedRequests = metrics.compressedRequests.sum();
+            compressedResponses = metrics.compressedResponses.sum();
+            statusCodes = new TreeMap<>();
+            for (Map.Entry<Integer, LongAdder> entry : metrics.statusCodes.entrySet()) {
+                statusCodes.put(entry.getKey(), entry.getValue().sum());
+            }
+            dnsMillis = new Percentiles(metrics.dns);
+            connectMillis = new Percentiles(metrics.connect);
+            timeToFirstByteMillis = new Percentiles(metrics.timeToFirstByte);
+            totalMillis = new Percentiles(metrics.total);
+        }
+
+        private Snapshot(Snapshot current, Snapshot earlier) {
+            source = current.source;
+            method = current.method;
+            urlTemplate = current.urlTemplate;
+            calls = current.calls - earlier.calls;
+            failures = current.failures - earlier.failures;
+            cancelled = current.cancelled - earlier.cancelled;
+            requestBytes = current.requestBytes - earlier.requestBytes;
+            responseBytes = current.responseBytes - earlier.responseBytes;
+            requestRawBytes = current.requestRawBytes - earlier.requestRawBytes;
+            responseRawBytes = current.responseRawBytes - earlier.responseRawBytes;
+            compressedRequests = current.compressedRequests - earlier.compressedRequests;
+            compressedResponses = current.compressedResponses - earlier.compressedResponses;
+            statusCodes = new TreeMap<>();
+            for (Map.Entry<Integer, Long> entry : current.statusCodes.entrySet()) {
+                long count = entry.getValue() - earlier.statusCodes.getOrDefault(entry.getKey(), 0L);
+                if (count > 0) {
+                    statusCodes.put(entry.getKey(), count);
+                }
+            }
+            dnsMillis = current.dnsMillis.since(earlier.dnsMillis);
+            connectMillis = current.connectMillis.since(earlier.connectMillis);
+            timeToFirstByteMillis = current.timeToFirstByteMillis.since(earlier.timeToFirstByteMillis);
+            totalMillis = current.totalMillis.since(earlier.totalMillis);
+        }
+
+        // Only what was recorded after the earlier snapshot of the same endpoint.
+        // After RestMetrics.reset() the earlier one belongs to a dropped endpoint,
+        // then this snapshot already starts from zero and is returned as it is.
+        public Snapshot since(Snapshot earlier) {
+            if ((earlier == null) || (earlier.source != source)) {
+                return this;
+            }
+            return new Snapshot(this, earlier);
+        }
+
+        // Nothing was recorded, e.g. the delta of an untouched endpoint
+        public boolean isEmpty() {
+            return (calls == 0) && (failures == 0) && (cancelled == 0);
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUrlTemplate() {
+            return urlTemplate;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getCancelled() {
+            return cancelled;
+        }
+
+        public long getRequestBytes() {
+            return requestBytes;
+        }
+
+        public long getResponseBytes() {
+            return responseBytes;
+        }
+
+        public long getRequestRawBytes() {
+            return requestRawBytes;
+        }
+
+        public long getResponseRawBytes() {
+            return responseRawBytes;
+        }
+
+        public long getCompressedRequests() {
+            return compressedRequests;
+        }
+
+        public long getCompressedResponses() {
+            return compressedResponses;
+        }
+
+        public Map<Integer, Long> getStatusCodes() {
+            return statusCodes;
+        }
+
+        public Percentiles getDnsMillis() {
+            return dnsMillis;
+        }
+
+        public Percentiles getConnectMillis() {
+            return connectMillis;
+        }
+
+        public Percentiles getTimeToFirstByteMillis() {
+            return timeToFirstByteMillis;
+        }
+
+        public Percentiles getTotalMillis() {
+            return totalMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-6s %-40s calls=%d failures=%d cancelled=%d status=%s"
+                    + " sent=%dB(raw %dB, gzipped %d) received=%dB(raw %dB, compressed %d)"
+                    + " dns=%s connect=%s ttfb=%s total=%s",
+                    method, urlTemplate, calls, failures, cancelled, statusCodes,
+                    requestBytes, requestRawBytes, compressedRequests,
+                    responseBytes, responseRawBytes, compressedResponses, dnsMillis, connectMillis, timeToFirstByteMillis, totalMillis);
+        }
+    }
+
+    public static class Percentiles {
+        // Kept for since(), not serialized
+        private final transient Histogram histogram;
+        private final long count;
+        private final double p50;
+        private final double p99;
+        private final double max;
+
+        private Percentiles(Histogram histogram) {
+            this.histogram = histogram.copy();
+            count = this.histogram.getTotalCount();
+            p50 = this.histogram.getValueAtPercentile(50) / 1000.0;
+            p99 = this.histogram.getValueAtPercentile(99) / 1000.0;
+            max = this.histogram.getMaxValue() / 1000.0;
+        }
+
+        // The earlier copy is a prefix of the same histogram, no bucket goes negative
+        private Percentiles since(Percentiles earlier) {
+            Histogram delta = histogram.copy();
+            delta.subtract(earlier.histogram);
+            return new Percentiles(delta);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[n=%d p50=%.2f p99=%.2f max=%.2f]", count, p50, p99, max);
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+
+// Json <-> entity conversion used by RestQueries.
+// Type may be a Class or a generic type such as List<Item>.
+public interface EntityCodec {
+
+    <T> T decode(ResponseBody responseBody, Type type) throws IOException;
+
+    String encode(Object entity) throws IOException;
+
+}
@@ -0,0 +1,67 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import okhttp3.ResponseBody;
+
+// One Gson for all resources; the TypeAdapter of each type is looked up once
+public final class GsonCodec implements EntityCodec {
+
+    private static final GsonCodec instance = new GsonCodec();
+
+    private final Gson gson;
+    private final Map<Type, TypeAdapter<?>> adapters;
+
+    private GsonCodec() {
+        gson = new Gson();
+        adapters = new ConcurrentHashMap<>();
+    }
+
+    public static GsonCodec getInstance() {
+        return instance;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> TypeAdapter<T> adapter(Type type) {
+        return (TypeAdapter<T>) adapters.computeIfAbsent(type, key -> gson.getAdapter(TypeToken.get(key)));
+    }
+
+    @Override
+    public <T> T decode(ResponseBody responseBody, Type type) throws IOException {
+        try (JsonReader jsonReader = new JsonReader(responseBody.charStream())) {
+            // Same leniency as Gson.fromJson()
+            jsonReader.setLenient(true);
+            try {
+                jsonReader.peek();
+            } catch (EOFException e) {
+                // Empty body, Gson.fromJson() gives null as well
+                return null;
+            }
+            TypeAdapter<T> typeAdapter = adapter(type);
+            return typeAdapter.read(jsonReader);
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new IOException(e.toString(), e);
+        }
+    }
+
+    @Override
+    public String encode(Object entity) {
+        return gson.toJson(entity);
+    }
+
+    @Override
+    public String toString() {
+        return "GsonCodec [adapters=" + adapters.size() + "]";
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Hedged GETs: when the first attempt is slower than the given percentile of
+// earlier GETs, the same request is sent again and the first answer wins.
+// Over HTTP/1.1 a busy connection is never shared, so the hedge opens or takes another
+// one; over HTTP/2 both attempts may be multiplexed on the same connection.
+// The hedge carries a HedgeAttempt tag, RestMetrics counts it apart from the first attempt.
+// Requests going to a Cassette are not hedged, a recording must hold one answer per request.
+public class HedgePolicy {
+
+    public static final double DEFAULT_PERCENTILE = 95.0;
+    public static final long DEFAULT_MIN_DELAY_MILLIS = 5L;
+    public static final long DEFAULT_INITIAL_DELAY_MILLIS = 50L;
+    public static final int DEFAULT_MIN_SAMPLES = 20;
+
+    private static final long HIGHEST_TRACKABLE_MICROS = 60L * 1000000L;
+    private static final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hedge-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static volatile HedgePolicy defaultPolicy;
+
+    public static final class HedgeAttempt {
+        private static final HedgeAttempt INSTANCE = new HedgeAttempt();
+
+        private HedgeAttempt() {
+        }
+    }
+
+    private final double percentile;
+    private final long minDelayMillis;
+    private final long initialDelayMillis;
+    private final int minSamples;
+    private final Histogram latencies;
+    private final AtomicLong requests;
+    private final AtomicLong hedges;
+    private final AtomicLong hedgeWins;
+
+    public HedgePolicy(double percentile, long minDelayMillis, long initialDelayMillis, int minSamples) {
+        this.percentile = percentile;
+        this.minDelayMillis = minDelayMillis;
+        this.initialDelayMillis = initialDelayMillis;
+        this.minSamples = minSamples;
+        latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 2);
+        requests = new AtomicLong();
+        hedges = new AtomicLong();
+        hedgeWins = new AtomicLong();
+    }
+
+    public HedgePolicy() {
+        this(DEFAULT_PERCENTILE, DEFAULT_MIN_DELAY_MILLIS, DEFAULT_INITIAL_DELAY_MILLIS, DEFAULT_MIN_SAMPLES);
+    }
+
+    // Used by every resource that has no policy of its own; null switches hedging off
+    public static HedgePolicy getDefault() {
+        return defaultPolicy;
+    }
+
+    public static void setDefault(HedgePolicy hedgePolicy) {
+        defaultPolicy = hedgePolicy;
+    }
+
+    public static boolean isHedge(Request request) {
+        return request.tag(HedgeAttempt.class) != null;
+    }
+
+    // Until minSamples answers are known the initial delay is used
+    public long getDelayMillis() {
+        if (latencies.getTotalCount() < minSamples) {
+            return initialDelayMillis;
+        }
+        return Math.max(minDelayMillis, latencies.getValueAtPercentile(percentile) / 1000);
+    }
+
+    public CompletableFuture<Response> execute(OkHttpClient httpClient, Request request) {
+        requests.incrementAndGet();
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        long startNanos = System.nanoTime();
+        Call primary = httpClient.newCall(CancelledCallInterceptor.track(request));
+        Call hedge = httpClient.newCall(CancelledCallInterceptor.track(request.newBuilder()
+                .tag(HedgeAttempt.class, HedgeAttempt.INSTANCE)
+                .build()));
+        AtomicInteger pending = new AtomicInteger(1);
+        AtomicBoolean answered = new AtomicBoolean();
+        primary.enqueue(new Attempt(result, startNanos, hedge, false, pending, answered));
+        ScheduledFuture<?> timer = (request.tag(Cassette.class) != null) ? null : scheduler.schedule(() -> {
+            // Once the primary has failed nobody waits for the hedge
+            if ((!result.isDone()) && (addPending(pending))) {
+                hedges.incrementAndGet();
+                hedge.enqueue(new Attempt(result, startNanos, primary, true, pending, answered));
+            }
+        }, getDelayMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((response, throwable) -> {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            if (result.isCancelled()) {
+                primary.cancel();
+                hedge.cancel();
+            }
+        });
+        return result;
+    }
+
+    // Checks and increments in one step, a pending count of 0 stays 0
+    private static boolean addPending(AtomicInteger pending) {
+        int current;
+        do {
+            current = pending.get();
+            if (current == 0) {
+                return false;
+            }
+        } while (!pending.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private final class Attempt implements Callback {
+        private final CompletableFuture<Response> result;
+        private final long startNanos;
+        private final Call other;
+        private final boolean isHedge;
+        private final AtomicInteger pending;
+        private final AtomicBoolean answered;
+
+        private Attempt(CompletableFuture<Response> result, long startNanos, Call other, boolean isHedge,
+                AtomicInteger pending, AtomicBoolean answered) {
+            this.result = result;
+            this.startNanos = startNanos;
+            this.other = other;
+            this.isHedge = isHedge;
+            this.pending = pending;
+            this.answered = answered;
+        }
+
+        // The statistics are updated before the caller sees the answer
+        @Override
+        public void onResponse(Call call, Response response) {
+            if ((result.isDone()) || (!answered.compareAndSet(false, true))) {
+                response.close();
+                return;
+            }
+            latencies.recordValue(Math.min((System.nanoTime() - startNanos) / 1000, HIGHEST_TRACKABLE_MICROS));
+            if (isHedge) {
+                hedgeWins.incrementAndGet();
+            }
+            other.cancel();
+            if (!result.complete(response)) {
+                response.close();
+            }
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            CancelledCallInterceptor.closeDropped(call);
+            // The call still in flight may answer; fail only when none is left
+            if ((pending.decrementAndGet() == 0) && (!call.isCanceled())) {
+                // TODO Develop Custom Exception + Log
+                result.completeExceptionally(new RuntimeException("Request Error " + e.toString(), e));
+            }
+        }
+    }
+
+    // Statistics - - - - - - - - - - - - - - - - - - - -
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getHedges() {
+        return hedges.get();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+
+    public double getHedgeRate() {
+        long total = requests.get();
+        return total == 0 ? 0 : (double) hedges.get() / total;
+    }
+
+    public double getWinRate() {
+        long sent = hedges.get();
+        return sent == 0 ? 0 : (double) hedgeWins.get() / sent;
+    }
+
+    // Extra requests sent to the server compared to no hedging
+    public double getAddedLoad() {
+        return getHedgeRate();
+    }
+
+    @Override
+    public String toString() {
+        return "HedgePolicy [percentile=" + percentile + ", delayMillis=" + getDelayMillis()
+                + ", requests=" + getRequests() + ", hedges=" + getHedges() + ", hedgeWins=" + getHedgeWins()
+                + ", hedgeRate=" + String.format("%.3f", getHedgeRate())
+                + ", winRate=" + String.format("%.3f", getWinRate()) + "]";
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// One OkHttpClient per server for the whole process.
+// All clients share a Dispatcher, every server has its own ConnectionPool.
+public final class HttpClientRegistry {
+
+    private static final Map<String, RegisteredClient> clients = new ConcurrentHashMap<>();
+    private static volatile ClientSettings settings = new ClientSettings();
+    private static volatile Dispatcher dispatcher;
+
+    private HttpClientRegistry() {
+    }
+
+    private static final class RegisteredClient {
+        private final OkHttpClient httpClient;
+        private final ConnectionCounter connectionCounter;
+
+        private RegisteredClient(OkHttpClient httpClient, ConnectionCounter connectionCounter) {
+            this.httpClient = httpClient;
+            this.connectionCounter = connectionCounter;
+        }
+    }
+
+    public static ClientSettings getSettings() {
+        return settings;
+    }
+
+    // Pool and protocol settings apply to clients created afterwards; call reset() to rebuild existing ones
+    public static void setSettings(ClientSettings settings) {
+        HttpClientRegistry.settings = settings;
+        if (dispatcher != null) {
+            dispatcher.setMaxRequests(settings.getMaxRequests());
+            dispatcher.setMaxRequestsPerHost(settings.getMaxRequestsPerHost());
+        }
+    }
+
+    // scheme://host:port/ of any url on the server
+    public static String serverKey(String server) {
+        HttpUrl httpUrl = (server == null) ? null : HttpUrl.parse(server);
+        if (httpUrl == null) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Invalid Server Url " + server);
+        }
+        return httpUrl.scheme() + "://" + httpUrl.host() + ":" + httpUrl.port() + "/";
+    }
+
+    private static Dispatcher getDispatcher() {
+        if (dispatcher == null) {
+            synchronized (HttpClientRegistry.class) {
+                if (dispatcher == null) {
+                    // Async callbacks run on virtual threads too when RestExecutors uses them
+                    Dispatcher newDispatcher = new Dispatcher(RestExecutors.newPerRequestExecutor("OkHttp Dispatcher"));
+                    newDispatcher.setMaxRequests(settings.getMaxRequests());
+                    newDispatcher.setMaxRequestsPerHost(settings.getMaxRequestsPerHost());
+                    dispatcher = newDispatcher;
+                }
+            }
+        }
+        return dispatcher;
+    }
+
+    private static RegisteredClient createClient(String serverKey) {
+        ClientSettings currentSettings = settings;
+        ConnectionCounter connectionCounter = new ConnectionCounter(serverKey);
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .dispatcher(getDispatcher())
+                .connectionPool(new ConnectionPool(currentSettings.getMaxIdleConnections(),
+                        currentSettings.getKeepAliveMillis(), TimeUnit.MILLISECONDS))
+                .protocols(currentSettings.getProtocols())
+                .connectTimeout(currentSettings.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(currentSettings.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .addInterceptor(new CancelledCallInterceptor())
+                .addInterceptor(new MetricsInterceptor())
+                .addInterceptor(new CassetteInterceptor())
+                .addInterceptor(new CompressionInterceptor(currentSettings))
+                .eventListenerFactory(CallMetricsListener.factory(connectionCounter))
+                .build();
+        RegisteredClient registeredClient = new RegisteredClient(httpClient, connectionCounter);
+        if (currentSettings.getPrewarmConnections() > 0) {
+            prewarm(httpClient, serverKey, currentSettings.getPrewarmConnections());
+        }
+        return registeredClient;
+    }
+
+    private static RegisteredClient getRegisteredClient(String server) {
+        return clients.computeIfAbsent(serverKey(server), HttpClientRegistry::createClient);
+    }
+
+    public static OkHttpClient getClient(String server) {
+        return getRegisteredClient(server).httpClient;
+    }
+
+    public static ConnectionCounter getConnectionCounter(String server) {
+        return getRegisteredClient(server).connectionCounter;
+    }
+
+    public static List<ConnectionCounter> getConnectionCounters() {
+        List<ConnectionCounter> result = new ArrayList<>();
+        for (RegisteredClient registeredClient : clients.values()) {
+            result.add(registeredClient.connectionCounter);
+        }
+        return result;
+    }
+
+    public static int getPooledConnections() {
+        int result = 0;
+        for (RegisteredClient registeredClient : clients.values()) {
+            result += registeredClient.httpClient.connectionPool().connectionCount();
+        }
+        return result;
+    }
+
+    // Opens the given number of connections in the background.
+    // Concurrent HEAD requests cannot share an HTTP/1.1 connection, so each one dials its own.
+    public static void prewarm(String server, int connections) {
+        prewarm(getClient(server), serverKey(server), connections);
+    }
+
+    private static void prewarm(OkHttpClient httpClient, String serverKey, int connections) {
+        for (int i = 0; i < connections; i++) {
+            Request request = new Request.Builder().url(serverKey).head().build();
+            httpClient.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    // TODO User Logger
+                    System.out.println("Prewarm " + serverKey + " failed: " + e.toString());
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                }
+            });
+        }
+    }
+
+    // Drops all clients and their idle connections; running calls are not cancelled
+    public static void reset() {
+        for (RegisteredClient registeredClient : clients.values()) {
+            registeredClient.httpClient.connectionPool().evictAll();
+        }
+        clients.clear();
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import okhttp3.ResponseBody;
+
+// Jackson streaming from the response bytes. Fields are mapped like Gson does:
+// by name, without getters or setters, unknown properties are skipped.
+// An ObjectReader is immutable and thread safe, so one per type is kept.
+public final class JacksonCodec implements EntityCodec {
+
+    private static final JacksonCodec instance = new JacksonCodec();
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+    private final Map<Type, ObjectReader> readers;
+
+    private JacksonCodec() {
+        objectMapper = new ObjectMapper()
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        objectWriter = objectMapper.writer();
+        readers = new ConcurrentHashMap<>();
+    }
+
+    public static JacksonCodec getInstance() {
+        return instance;
+    }
+
+    private ObjectReader reader(Type type) {
+        return readers.computeIfAbsent(type, key -> objectMapper.readerFor(objectMapper.constructType(key)));
+    }
+
+    @Override
+    public <T> T decode(ResponseBody responseBody, Type type) throws IOException {
+        try (InputStream inputStream = responseBody.byteStream();
+                JsonParser jsonParser = objectMapper.getFactory().createParser(inputStream)) {
+            if (jsonParser.nextToken() == null) {
+                // Empty body, null like GsonCodec
+                return null;
+            }
+            return reader(type).readValue(jsonParser);
+        }
+    }
+
+    @Override
+    public String encode(Object entity) throws IOException {
+        return objectWriter.writeValueAsString(entity);
+    }
+
+    @Override
+    public String toString() {
+        return "JacksonCodec [readers=" + readers.size() + "]";
+    }
+
+}
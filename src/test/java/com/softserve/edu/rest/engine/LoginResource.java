@@ -6,7 +6,11 @@ import com.softserve.edu.rest.entity.SimpleEntity;
 public class LoginResource extends RestQueries<SimpleEntity> {
 
     public LoginResource() {
-        super(RestUrlRepository.getLogin(), SimpleEntity.class);
+        super(RestUrlRepository.getLogin());
+    }
+
+    public LoginResource(String server) {
+        super(RestUrlRepository.getLogin(server));
     }
 
 }
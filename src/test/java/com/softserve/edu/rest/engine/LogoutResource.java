@@ -6,7 +6,11 @@ import com.softserve.edu.rest.entity.SimpleEntity;
 public class LogoutResource extends RestQueries<SimpleEntity> {
 
     public LogoutResource() {
-        super(RestUrlRepository.getLogout(), SimpleEntity.class);
+        super(RestUrlRepository.getLogout());
+    }
+
+    public LogoutResource(String server) {
+        super(RestUrlRepository.getLogout(server));
     }
 
 }
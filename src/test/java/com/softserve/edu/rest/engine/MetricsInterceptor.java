@@ -0,0 +1,18 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+// Application interceptor: sees each call once, after redirects and retries
+public class MetricsInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        RestMetrics.get(chain.request()).recordStatus(response.code());
+        return response;
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.softserve.edu.rest.engine;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.softserve.edu.rest.entity.RestParameters;
+
+import okhttp3.HttpUrl;
+import okhttp3.Response;
+
+// Lazy iteration over all elements of a paged collection; nothing is requested
+// before the first hasNext() or next().
+// At most prefetchDepth pages are requested or held ahead of the page being read,
+// so memory does not grow with the length of the collection.
+// With page parameters the next urls are known up front and go out together;
+// with Link headers each next page is asked for as soon as the previous one arrives.
+// Not thread safe; close() cancels pages still in flight.
+public class PageIterator<T, E> implements Iterator<E>, AutoCloseable {
+
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]*)>\\s*;[^,]*rel=\"?next\"?");
+
+    private static final class Page<E> {
+        private final List<E> elements;
+        private final String nextUrl;
+
+        private Page(List<E> elements, String nextUrl) {
+            this.elements = elements;
+            this.nextUrl = nextUrl;
+        }
+    }
+
+    // The page future always runs to the end, so a fetched body is always closed;
+    // cancelling the response future stops a call that has not answered yet
+    private static final class Pending<E> {
+        private final CompletableFuture<Response> response;
+        private final CompletableFuture<Page<E>> page;
+
+        private Pending(CompletableFuture<Response> response, CompletableFuture<Page<E>> page) {
+            this.response = response;
+            this.page = page;
+        }
+    }
+
+    private final RestQueries<T> restQueries;
+    private final PageSettings settings;
+    private final Function<T, List<E>> elements;
+    private final String firstUrl;
+    private final Deque<Pending<E>> ahead;
+    private Iterator<E> current;
+    private String nextUrl;
+    private long requestedPages;
+    private long readPages;
+    private boolean started;
+    private boolean lastPageSeen;
+    private boolean closed;
+
+    PageIterator(RestQueries<T> restQueries, String firstUrl, PageSettings settings, Function<T, List<E>> elements) {
+        this.restQueries = restQueries;
+        this.settings = settings;
+        this.elements = elements;
+        this.firstUrl = firstUrl;
+        ahead = new ArrayDeque<>();
+        current = Collections.emptyIterator();
+        nextUrl = firstUrl;
+        requestedPages = 0;
+        readPages = 0;
+        started = false;
+    }
+
+    private String pageUrl(long pageIndex) {
+        HttpUrl url = HttpUrl.parse(firstUrl);
+        if (url == null) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Invalid page url " + firstUrl);
+        }
+        return url.newBuilder()
+                .setQueryParameter(settings.getPageParameter(), String.valueOf(settings.getFirstPage() + pageIndex))
+                .setQueryParameter(settings.getSizeParameter(), String.valueOf(settings.getPageSize()))
+                .build().toString();
+    }
+
+    private void fill(int target) {
+        while ((!closed) && (!lastPageSeen) && (ahead.size() < target)
+                && (requestedPages < settings.getMaxPages())) {
+            if (settings.isLinkHeader()) {
+                if (nextUrl == null) {
+                    return;
+                }
+                ahead.add(request(nextUrl));
+                nextUrl = null;
+                requestedPages++;
+                // The url after this one is known only from its answer
+                return;
+            }
+            ahead.add(request(pageUrl(requestedPages++)));
+        }
+    }
+
+    private Pending<E> request(String url) {
+        CompletableFuture<Response> response = restQueries.httpGetUrlAsResponseAsync(url);
+        return new Pending<>(response, response.thenApplyAsync(this::toPage));
+    }
+
+    private Page<E> toPage(Response response) {
+        String next = nextLink(response.header("Link"));
+        T entity = restQueries.ConvertToEntity(response);
+        List<E> pageElements = (entity == null) ? null : elements.apply(entity);
+        return new Page<>((pageElements == null) ? Collections.<E>emptyList() : pageElements, next);
+    }
+
+    static String nextLink(String linkHeader) {
+        if (linkHeader == null) {
+            return null;
+        }
+        Matcher matcher = NEXT_LINK.matcher(linkHeader);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private Page<E> await(CompletableFuture<Page<E>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            close();
+            throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!started) {
+            started = true;
+            fill(settings.getPrefetchDepth() + 1);
+        }
+        while (!current.hasNext()) {
+            if (ahead.isEmpty()) {
+                fill(1);
+                if (ahead.isEmpty()) {
+                    return false;
+                }
+            }
+            Page<E> page = await(ahead.poll().page);
+            readPages++;
+            if (settings.isLinkHeader()) {
+                nextUrl = page.nextUrl;
+                lastPageSeen = nextUrl == null;
+            } else if (page.elements.size() < settings.getPageSize()) {
+                lastPageSeen = true;
+                cancelAhead();
+            }
+            current = page.elements.iterator();
+            fill(settings.getPrefetchDepth());
+        }
+        return true;
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    private void cancelAhead() {
+        Pending<E> pending;
+        while ((pending = ahead.poll()) != null) {
+            pending.response.cancel(true);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        current = Collections.emptyIterator();
+        cancelAhead();
+    }
+
+    // getters
+
+    public long getRequestedPages() {
+        return requestedPages;
+    }
+
+    public long getReadPages() {
+        return readPages;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.softserve.edu.rest.engine;
+
+// How a collection is split into pages: either the server sends
+// "Link: <url>; rel=\"next\"" (GitHub style), or pages are asked for with
+// page/size url parameters and the first short page is the last one.
+public class PageSettings {
+
+    public static final int DEFAULT_PREFETCH_DEPTH = 2;
+    public static final int DEFAULT_PAGE_SIZE = 30;
+
+    private String pageParameter;
+    private String sizeParameter;
+    private int pageSize;
+    private int firstPage;
+    private int prefetchDepth;
+    private long maxPages;
+
+    private PageSettings(String pageParameter, String sizeParameter, int pageSize) {
+        this.pageParameter = pageParameter;
+        this.sizeParameter = sizeParameter;
+        this.pageSize = pageSize;
+        firstPage = 1;
+        prefetchDepth = DEFAULT_PREFETCH_DEPTH;
+        maxPages = Long.MAX_VALUE;
+    }
+
+    public static PageSettings byLinkHeader() {
+        return new PageSettings(null, null, DEFAULT_PAGE_SIZE);
+    }
+
+    public static PageSettings byPageParameters(String pageParameter, String sizeParameter, int pageSize) {
+        return new PageSettings(pageParameter, sizeParameter, pageSize);
+    }
+
+    // setters
+
+    public PageSettings setFirstPage(int firstPage) {
+        this.firstPage = firstPage;
+        return this;
+    }
+
+    // Pages requested or held ahead of the one being read
+    public PageSettings setPrefetchDepth(int prefetchDepth) {
+        this.prefetchDepth = Math.max(0, prefetchDepth);
+        return this;
+    }
+
+    public PageSettings setMaxPages(long maxPages) {
+        this.maxPages = maxPages;
+        return this;
+    }
+
+    // getters
+
+    public boolean isLinkHeader() {
+        return pageParameter == null;
+    }
+
+    public String getPageParameter() {
+        return pageParameter;
+    }
+
+    public String getSizeParameter() {
+        return sizeParameter;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getFirstPage() {
+        return firstPage;
+    }
+
+    public int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    public long getMaxPages() {
+        return maxPages;
+    }
+
+    @Override
+    public String toString() {
+        return "PageSettings [" + (isLinkHeader() ? "Link header"
+                : pageParameter + "/" + sizeParameter + "=" + pageSize + ", firstPage=" + firstPage)
+                + ", prefetchDepth=" + prefetchDepth + ", maxPages=" + maxPages + "]";
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.softserve.edu.rest.engine;
+
+import java.nio.charset.StandardCharsets;
+
+// UTF-8 percent-encoding for url path segments and for query / form values.
+// Query and form values are encoded like okhttp3.FormBody does it, so a form body
+// built from RestParameters has the same bytes as one built by FormBody.
+public final class PercentEncoder {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final boolean[] PATH_SAFE = new boolean[128];
+    private static final boolean[] QUERY_SAFE = new boolean[128];
+    // HttpUrl.FORM_ENCODE_SET with '%' and '+'
+    private static final String FORM_ENCODED = " \"':;<=>@[]^`{}|/\\?#&!$(),~%+";
+
+    static {
+        String unreserved = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-._~";
+        for (char c : unreserved.toCharArray()) {
+            PATH_SAFE[c] = true;
+            QUERY_SAFE[c] = true;
+        }
+        for (char c : "!$'()*,;:@".toCharArray()) {
+            PATH_SAFE[c] = true;
+        }
+        for (char c = 0x21; c < 0x7F; c++) {
+            QUERY_SAFE[c] = FORM_ENCODED.indexOf(c) < 0;
+        }
+    }
+
+    private PercentEncoder() {
+    }
+
+    public static void appendPathSegment(StringBuilder target, String value) {
+        append(target, value, PATH_SAFE);
+    }
+
+    // Also used for application/x-www-form-urlencoded bodies; space becomes %20, '+' becomes %2B
+    public static void appendQueryComponent(StringBuilder target, String value) {
+        append(target, value, QUERY_SAFE);
+    }
+
+    private static void append(StringBuilder target, String value, boolean[] safe) {
+        if (value == null) {
+            return;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if ((c < 128) && safe[c]) {
+                target.append(c);
+            } else if (c < 128) {
+                appendHex(target, c);
+            } else {
+                int end = i + 1;
+                while ((end < length) && (value.charAt(end) >= 128)) {
+                    end++;
+                }
+                for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    appendHex(target, b & 0xFF);
+                }
+                i = end - 1;
+            }
+        }
+    }
+
+    private static void appendHex(StringBuilder target, int b) {
+        target.append('%').append(HEX_DIGITS[b >> 4]).append(HEX_DIGITS[b & 0x0F]);
+    }
+
+}
@@ -0,0 +1,340 @@
+package com.softserve.edu.rest.engine;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Token bucket per server: ratePerSecond on average, up to burst at once.
+// A caller without a token gets a reservation in the future and waits on a timer,
+// so async requests never park a thread. 429 answers halve the rate and honour
+// Retry-After, then every good answer adds back a little (AIMD); a throttled
+// request is sent again up to maxRetries times.
+// A reservation cancelled before its time gives the token back.
+public class RateLimiter {
+
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final long DEFAULT_RETRY_AFTER_MILLIS = 1000L;
+    public static final long OBSERVED_WINDOW_MILLIS = 1000L;
+
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double INCREASE_SHARE = 0.02;
+    private static final double MIN_RATE_SHARE = 0.05;
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private static final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rate-limiter");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final String server;
+    private final double configuredRate;
+    private final double burst;
+    private final int maxRetries;
+    private double rate;
+    private double tokens;
+    // Tokens are added from this moment on; after a 429 it lies in the future
+    private long refillNanos;
+    private final long createdNanos;
+    // When the reserved tokens are (or were) due, for the observed rate
+    private final Deque<Long> grants;
+    private final AtomicLong acquired;
+    private final AtomicLong delayed;
+    private final AtomicLong waitNanos;
+    private final AtomicLong throttled;
+    private final AtomicLong retries;
+
+    public RateLimiter(String server, double ratePerSecond, int burst, int maxRetries) {
+        this.server = server;
+        configuredRate = ratePerSecond;
+        this.burst = Math.max(1, burst);
+        this.maxRetries = maxRetries;
+        rate = ratePerSecond;
+        tokens = this.burst;
+        refillNanos = System.nanoTime();
+        createdNanos = refillNanos;
+        grants = new ArrayDeque<>();
+        acquired = new AtomicLong();
+        delayed = new AtomicLong();
+        waitNanos = new AtomicLong();
+        throttled = new AtomicLong();
+        retries = new AtomicLong();
+    }
+
+    // Registry - - - - - - - - - - - - - - - - - - - -
+
+    public static RateLimiter configure(String server, double ratePerSecond, int burst) {
+        RateLimiter rateLimiter = new RateLimiter(HttpClientRegistry.serverKey(server), ratePerSecond, burst,
+                DEFAULT_MAX_RETRIES);
+        limiters.put(rateLimiter.server, rateLimiter);
+        return rateLimiter;
+    }
+
+    // null when the server has no limit
+    public static RateLimiter get(String server) {
+        return limiters.isEmpty() ? null : limiters.get(HttpClientRegistry.serverKey(server));
+    }
+
+    public static void remove(String server) {
+        limiters.remove(HttpClientRegistry.serverKey(server));
+    }
+
+    public static void reset() {
+        limiters.clear();
+    }
+
+    // Bucket - - - - - - - - - - - - - - - - - - - -
+
+    private void refill(long now) {
+        if (now > refillNanos) {
+            tokens = Math.min(burst, tokens + (now - refillNanos) * rate / NANOS_PER_SECOND);
+            refillNanos = now;
+        }
+    }
+
+    // Takes a token, possibly one that is not there yet; returns how long to wait for it
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        refill(now);
+        tokens -= 1;
+        long wait = Math.max(0, refillNanos - now);
+        if (tokens < 0) {
+            wait += (long) (-tokens * NANOS_PER_SECOND / rate);
+        }
+        grants.addLast(now + wait);
+        dropOldGrants(now);
+        acquired.incrementAndGet();
+        if (wait > 0) {
+            delayed.incrementAndGet();
+            waitNanos.addAndGet(wait);
+        }
+        return wait;
+    }
+
+    // The token of the latest reservation goes back, later ones keep their time
+    private synchronized void release() {
+        tokens = Math.min(burst, tokens + 1);
+        grants.pollLast();
+        acquired.decrementAndGet();
+    }
+
+    private void dropOldGrants(long now) {
+        long windowStart = now - TimeUnit.MILLISECONDS.toNanos(OBSERVED_WINDOW_MILLIS);
+        while ((!grants.isEmpty()) && (grants.peekFirst() < windowStart)) {
+            grants.pollFirst();
+        }
+    }
+
+    // Cancelling the result while it waits hands the token back
+    public CompletableFuture<Void> acquireAsync() {
+        long wait = reserve();
+        if (wait == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        ScheduledFuture<?> timer = scheduler.schedule(() -> result.complete(null), wait, TimeUnit.NANOSECONDS);
+        result.whenComplete((ignored, throwable) -> {
+            if (result.isCancelled() && timer.cancel(false)) {
+                release();
+            }
+        });
+        return result;
+    }
+
+    private synchronized void onThrottled(long retryAfterMillis) {
+        throttled.incrementAndGet();
+        long now = System.nanoTime();
+        refill(now);
+        rate = Math.max(configuredRate * MIN_RATE_SHARE, rate * DECREASE_FACTOR);
+        tokens = Math.min(tokens, 0);
+        refillNanos = Math.max(refillNanos, now + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis));
+    }
+
+    private synchronized void onAccepted() {
+        if (rate < configuredRate) {
+            refill(System.nanoTime());
+            rate = Math.min(configuredRate, rate + configuredRate * INCREASE_SHARE);
+        }
+    }
+
+    // Retry-After is either seconds or an HTTP date
+    static long retryAfterMillis(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) {
+            return DEFAULT_RETRY_AFTER_MILLIS;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                return Math.max(0, ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException e2) {
+                return DEFAULT_RETRY_AFTER_MILLIS;
+            }
+        }
+    }
+
+    // Execution - - - - - - - - - - - - - - - - - - - -
+
+    // The calling thread waits for its token, it is the only one involved
+    public void acquire() {
+        long wait = reserve();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // TODO Develop Custom Exception
+                throw new RuntimeException("Interrupted waiting for " + server, e);
+            }
+        }
+    }
+
+    public Response execute(Request request, Function<Request, Response> network) {
+        for (int attempt = 0;; attempt++) {
+            acquire();
+            Response response = network.apply(request);
+            if (response.code() != 429) {
+                onAccepted();
+                return response;
+            }
+            onThrottled(retryAfterMillis(response));
+            if (attempt >= maxRetries) {
+                return response;
+            }
+            response.close();
+            retries.incrementAndGet();
+        }
+    }
+
+    // Cancelling the result before the token is there means the request is never sent
+    public CompletableFuture<Response> executeAsync(Request request,
+            Function<Request, CompletableFuture<Response>> network) {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        attempt(request, network, result, 0);
+        return result;
+    }
+
+    private void attempt(Request request, Function<Request, CompletableFuture<Response>> network,
+            CompletableFuture<Response> result, int attempt) {
+        CompletableFuture<Void> token = acquireAsync();
+        result.whenComplete((response, throwable) -> {
+            if (result.isCancelled()) {
+                token.cancel(false);
+            }
+        });
+        token.thenRun(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            CompletableFuture<Response> call;
+            try {
+                call = network.apply(request);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            result.whenComplete((response, throwable) -> {
+                if (result.isCancelled()) {
+                    call.cancel(true);
+                }
+            });
+            call.whenComplete((response, throwable) -> {
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else if ((response.code() == 429) && (attempt < maxRetries) && (!result.isDone())) {
+                    onThrottled(retryAfterMillis(response));
+                    response.close();
+                    retries.incrementAndGet();
+                    attempt(request, network, result, attempt + 1);
+                } else {
+                    if (response.code() == 429) {
+                        onThrottled(retryAfterMillis(response));
+                    } else {
+                        onAccepted();
+                    }
+                    if (!result.complete(response)) {
+                        response.close();
+                    }
+                }
+            });
+        });
+    }
+
+    // Statistics - - - - - - - - - - - - - - - - - - - -
+
+    public String getServer() {
+        return server;
+    }
+
+    public double getConfiguredRate() {
+        return configuredRate;
+    }
+
+    // Lower than configured while the server is pushing back
+    public synchronized double getAllowedRate() {
+        return rate;
+    }
+
+    // Requests per second let through in the last OBSERVED_WINDOW_MILLIS,
+    // or since the limiter was created when it is younger
+    public synchronized double getObservedRate() {
+        long now = System.nanoTime();
+        dropOldGrants(now);
+        long count = 0;
+        for (long grant : grants) {
+            if (grant <= now) {
+                count++;
+            }
+        }
+        double seconds = Math.min(now - createdNanos, TimeUnit.MILLISECONDS.toNanos(OBSERVED_WINDOW_MILLIS))
+                / (double) NANOS_PER_SECOND;
+        return seconds <= 0 ? 0 : count / seconds;
+    }
+
+    public long getAcquired() {
+        return acquired.get();
+    }
+
+    public long getDelayed() {
+        return delayed.get();
+    }
+
+    public long getWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.get());
+    }
+
+    public long getThrottled() {
+        return throttled.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RateLimiter [server=%s, configured=%.1f/s, allowed=%.1f/s, observed=%.1f/s,"
+                + " burst=%.0f, acquired=%d, delayed=%d, waitMillis=%d, throttled=%d, retries=%d]",
+                server, configuredRate, getAllowedRate(), getObservedRate(), burst, getAcquired(),
+                getDelayed(), getWaitMillis(), getThrottled(), getRetries());
+    }
+
+}
@@ -0,0 +1,267 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import okhttp3.CacheControl;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+// LRU cache for GET responses. Entries are grouped by resource (RestUrl),
+// and any write to the resource drops the whole group.
+public class ResponseCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+    public static final long DEFAULT_TTL_MILLIS = 5000L;
+
+    private static volatile ResponseCache defaultCache;
+
+    private static final class Entry {
+        private final String group;
+        private final int code;
+        private final String message;
+        private final Headers headers;
+        private final MediaType mediaType;
+        private final byte[] body;
+        private final String etag;
+        private volatile long expiresAtMillis;
+
+        private Entry(String group, Response response, byte[] body, long expiresAtMillis) {
+            this.group = group;
+            code = response.code();
+            message = response.message();
+            headers = response.headers();
+            mediaType = response.body().contentType();
+            this.body = body;
+            etag = response.header("ETag");
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isFresh() {
+            return System.currentTimeMillis() < expiresAtMillis;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, AtomicLong> generations;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong revalidations;
+    private final AtomicLong evictions;
+    private final AtomicLong invalidations;
+
+    public ResponseCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        generations = new ConcurrentHashMap<>();
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        revalidations = new AtomicLong();
+        evictions = new AtomicLong();
+        invalidations = new AtomicLong();
+    }
+
+    public ResponseCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS);
+    }
+
+    // Used by every resource that has no cache of its own; null switches caching off
+    public static ResponseCache getDefault() {
+        return defaultCache;
+    }
+
+    public static void setDefault(ResponseCache responseCache) {
+        defaultCache = responseCache;
+    }
+
+    // Lookup - - - - - - - - - - - - - - - - - - - -
+
+    private synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    private long generation(String group) {
+        return generations.computeIfAbsent(group, key -> new AtomicLong()).get();
+    }
+
+    // Stale entries with an ETag are revalidated with If-None-Match
+    private Request conditional(Request request, Entry entry) {
+        if ((entry == null) || (entry.etag == null)) {
+            return request;
+        }
+        return request.newBuilder().header("If-None-Match", entry.etag).build();
+    }
+
+    private Response fromEntry(Request request, Entry entry) {
+        long now = System.currentTimeMillis();
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(entry.code)
+                .message(entry.message)
+                .headers(entry.headers)
+                .body(ResponseBody.create(entry.mediaType, entry.body))
+                .sentRequestAtMillis(now)
+                .receivedResponseAtMillis(now)
+                .build();
+    }
+
+    private long expiresAt(Response response) {
+        CacheControl cacheControl = response.cacheControl();
+        long now = System.currentTimeMillis();
+        if (cacheControl.noCache()) {
+            return now;
+        }
+        if (cacheControl.maxAgeSeconds() >= 0) {
+            return now + cacheControl.maxAgeSeconds() * 1000L;
+        }
+        return now + ttlMillis;
+    }
+
+    private Response store(String group, long generation, Request request, Response response, Entry previous) {
+        String key = request.url().toString();
+        if ((response.code() == 304) && (previous != null)) {
+            response.close();
+            revalidations.incrementAndGet();
+            previous.expiresAtMillis = expiresAt(response);
+            return fromEntry(request, previous);
+        }
+        if ((response.code() != 200) || (response.cacheControl().noStore())) {
+            return response;
+        }
+        byte[] body;
+        try {
+            body = response.body().bytes();
+        } catch (IOException e) {
+            // TODO Develop Custom Exception + Log
+            throw new RuntimeException("Error to read ResponseBody for cache. " + e.toString());
+        }
+        Entry entry = new Entry(group, response, body, expiresAt(response));
+        // A write that ran meanwhile makes this answer suspect
+        if (generation(group) == generation) {
+            put(key, entry);
+        }
+        return fromEntry(request, entry);
+    }
+
+    public Response execute(Request request, String group, Function<Request, Response> network) {
+        String key = request.url().toString();
+        long generation = generation(group);
+        Entry entry = get(key);
+        if ((entry != null) && (entry.isFresh())) {
+            hits.incrementAndGet();
+            return fromEntry(request, entry);
+        }
+        misses.incrementAndGet();
+        Response response = network.apply(conditional(request, entry));
+        return store(group, generation, request, response, entry);
+    }
+
+    public CompletableFuture<Response> executeAsync(Request request, String group,
+            Function<Request, CompletableFuture<Response>> network) {
+        String key = request.url().toString();
+        long generation = generation(group);
+        Entry entry = get(key);
+        if ((entry != null) && (entry.isFresh())) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(fromEntry(request, entry));
+        }
+        misses.incrementAndGet();
+        CompletableFuture<Response> call = network.apply(conditional(request, entry));
+        CompletableFuture<Response> result = call
+                .thenApply(response -> store(group, generation, request, response, entry));
+        result.whenComplete((response, throwable) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // Invalidation - - - - - - - - - - - - - - - - - - - -
+
+    public void invalidate(String group) {
+        generations.computeIfAbsent(group, key -> new AtomicLong()).incrementAndGet();
+        synchronized (this) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().group.equals(group)) {
+                    iterator.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    // Statistics - - - - - - - - - - - - - - - - - - - -
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache [size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses()
+                + ", revalidations=" + getRevalidations() + ", evictions=" + getEvictions()
+                + ", invalidations=" + getInvalidations()
+                + ", hitRatio=" + String.format("%.3f", getHitRatio()) + "]";
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.softserve.edu.rest.engine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.softserve.edu.rest.entity.RestParameters;
+
+// Runs one call shape for many parameter sets, at most maxConcurrency at a time.
+// Results come back in input order; a failed item does not stop the others.
+public class RestBatch<T> {
+
+    private final RestQueries<T> restQueries;
+    private final int maxConcurrency;
+
+    public RestBatch(RestQueries<T> restQueries, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        this.restQueries = restQueries;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public List<BatchResult<T>> getAll(Stream<RestParameters> urlParameters) {
+        return execute(urlParameters, parameters -> restQueries.httpGetAsEntityAsync(null, parameters));
+    }
+
+    public List<BatchResult<T>> postAll(Stream<RestParameters> bodyParameters) {
+        return execute(bodyParameters, parameters -> restQueries.httpPostAsEntityAsync(null, null, parameters));
+    }
+
+    public List<BatchResult<T>> putAll(Stream<RestParameters> bodyParameters) {
+        return execute(bodyParameters, parameters -> restQueries.httpPutAsEntityAsync(null, null, parameters));
+    }
+
+    public List<BatchResult<T>> deleteAll(Stream<RestParameters> bodyParameters) {
+        return execute(bodyParameters, parameters -> restQueries.httpDeleteAsEntityAsync(null, null, parameters));
+    }
+
+    // The calling thread waits for a free slot before it takes the next parameters from the stream
+    public List<BatchResult<T>> execute(Stream<RestParameters> parametersStream,
+            Function<RestParameters, CompletableFuture<T>> call) {
+        Semaphore slots = new Semaphore(maxConcurrency);
+        List<CompletableFuture<BatchResult<T>>> futures = new ArrayList<>();
+        Iterator<RestParameters> iterator = parametersStream.iterator();
+        int index = 0;
+        while (iterator.hasNext()) {
+            RestParameters parameters = iterator.next();
+            acquire(slots);
+            futures.add(submit(index++, parameters, call, slots));
+        }
+        List<BatchResult<T>> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<BatchResult<T>> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    // Blocking calls, one RestExecutors thread each; with virtual threads maxConcurrency
+    // can be in the thousands
+    public List<BatchResult<T>> executeBlocking(Stream<RestParameters> parametersStream,
+            Function<RestParameters, T> call) {
+        ExecutorService executor = RestExecutors.newFixedExecutor(maxConcurrency, "rest-batch");
+        try {
+            return execute(parametersStream,
+                    parameters -> CompletableFuture.supplyAsync(() -> call.apply(parameters), executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private CompletableFuture<BatchResult<T>> submit(int index, RestParameters parameters,
+            Function<RestParameters, CompletableFuture<T>> call, Semaphore slots) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.apply(parameters);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        return future.handle((entity, throwable) -> {
+            slots.release();
+            return new BatchResult<>(index, parameters, entity, unwrap(throwable), System.nanoTime() - startNanos);
+        });
+    }
+
+    private void acquire(Semaphore slots) {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Batch interrupted", e);
+        }
+    }
+
+    private Throwable unwrap(Throwable throwable) {
+        if ((throwable instanceof CompletionException) && (throwable.getCause() != null)) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
+}
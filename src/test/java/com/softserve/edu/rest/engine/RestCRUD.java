@@ -1,11 +1,17 @@
 package com.softserve.edu.rest.engine;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 import com.softserve.edu.rest.data.RestUrl;
 import com.softserve.edu.rest.entity.RestParameters;
 
-import okhttp3.FormBody;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
@@ -14,78 +20,131 @@ import okhttp3.ResponseBody;
 
 public abstract class RestCRUD {
 
+    private static final MediaType FORM_MEDIA_TYPE = MediaType.parse("application/x-www-form-urlencoded");
+
     private RestUrl restUrl;
     private OkHttpClient httpClient;
+    private ResponseCache responseCache;
+    private HedgePolicy hedgePolicy;
+    private Cassette cassette;
+    private ServerPool serverPool;
 
     protected RestCRUD(RestUrl restUrl) {
         this.restUrl = restUrl;
-        httpClient = new OkHttpClient();
+        httpClient = HttpClientRegistry.getClient(restUrl.getUrlServer());
     }
 
-    protected void throwException(String message) {
-        // TODO Develop Custom Exception
-        throw new RuntimeException(
-                String.format("Method %s not Support for Resource %s", message, this.getClass().getName()));
+    public RestUrl getRestUrl() {
+        return restUrl;
     }
 
-    private String prepareUrlParameters(String urlTemplate, RestParameters urlParameters) {
-        String url = urlTemplate;
-        if (urlParameters != null) {
-            boolean isFirstParameter = true;
-            for (String currentKey : urlParameters.getAllParameters().keySet()) {
-                url = url + (isFirstParameter ? "?" : "&");
-                url = url + currentKey + "=" + urlParameters.getParameter(currentKey);
-                isFirstParameter = false;
-            }
-        }
-        return url;
+    public ResponseCache getResponseCache() {
+        return responseCache;
     }
 
-    private String preparePathVariables(String urlTemplate, RestParameters pathVariables) {
-        String url = urlTemplate;
-        String searchVariable;
-        if (pathVariables != null) {
-            for (String currentKey : pathVariables.getAllParameters().keySet()) {
-                searchVariable = "{" + currentKey + "}";
-                if (url.contains(searchVariable)) {
-                    url = url.replaceFirst(searchVariable, pathVariables.getParameter(currentKey));
-                }
-            }
-        }
-        return url;
+    // Overrides ResponseCache.getDefault() for this resource
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
     }
 
-    private RequestBody prepareRequestBody(RestParameters bodyParameters) {
+    public Cassette getCassette() {
+        return cassette;
+    }
+
+    // Overrides Cassette.getDefault() for this resource
+    public void setCassette(Cassette cassette) {
+        this.cassette = cassette;
+    }
+
+    private Cassette activeCassette() {
+        return (cassette != null) ? cassette : Cassette.getDefault();
+    }
+
+    public ServerPool getServerPool() {
+        return serverPool;
+    }
+
+    // Overrides ServerPool.get(server) for this resource
+    public void setServerPool(ServerPool serverPool) {
+        this.serverPool = serverPool;
+    }
+
+    // null when the server is a single host
+    private ServerPool activeServerPool() {
+        return (serverPool != null) ? serverPool : ServerPool.get(restUrl.getUrlServer());
+    }
+
+    protected void throwException(String message) {
+        // TODO Develop Custom Exception
+        throw new RuntimeException(
+                String.format("Method %s not Support for Resource %s", message, this.getClass().getName()));
+    }
+
+    // Same bytes as FormBody would send (see PercentEncoder), taken from the cache of RestParameters
+    RequestBody prepareRequestBody(RestParameters bodyParameters) {
         RequestBody requestBody = null;
         if (bodyParameters != null) {
-            FormBody.Builder formBodyBuilder = new FormBody.Builder();
-            for (String currentKey : bodyParameters.getAllParameters().keySet()) {
-                formBodyBuilder.add(currentKey, bodyParameters.getParameter(currentKey));
-            }
-            requestBody = formBodyBuilder.build();
+            requestBody = RequestBody.create(FORM_MEDIA_TYPE, bodyParameters.getEncodedBytes());
         }
         return requestBody;
     }
 
-    private Request.Builder prepareRequestBuilder(String requestUrl, RestParameters pathVariables,
+    // The verb is passed in, the caller's method name does not tell it (e.g. prepareGetRequest)
+    Request.Builder prepareRequestBuilder(String httpMethod, String requestUrl, RestParameters pathVariables,
             RestParameters urlParameters) {
         if ((requestUrl == null) || (requestUrl.isEmpty())) {
-            StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-            String methodName = stackTrace[2].getMethodName();
             // TODO User Logger
-            System.out.println("MethodName = " + methodName);
-            System.out.println("Method = " + methodName.substring(4).replace("AsResponse", ""));
-            throwException(methodName.substring(4).replace("AsResponse", ""));
+            System.out.println("Method = " + httpMethod);
+            throwException(httpMethod);
         }
-        String url = preparePathVariables(requestUrl, pathVariables);
-        url = prepareUrlParameters(url, urlParameters);
-        return new Request.Builder().url(url);
+        UrlTemplate urlTemplate = UrlTemplate.of(requestUrl);
+        return new Request.Builder()
+                .url(urlTemplate.render(pathVariables, urlParameters))
+                .tag(UrlTemplate.class, urlTemplate)
+                .tag(Cassette.class, activeCassette());
+    }
+
+    // null when the server has no RateLimiter
+    private RateLimiter activeRateLimiter() {
+        return RateLimiter.get(restUrl.getUrlServer());
     }
 
     private Response executeRequest(Request request) {
+        RateLimiter rateLimiter = activeRateLimiter();
+        if (rateLimiter == null) {
+            return sendRequest(request);
+        }
+        return rateLimiter.execute(request, this::sendRequest);
+    }
+
+    private CompletableFuture<Response> executeRequestAsync(Request request) {
+        RateLimiter rateLimiter = activeRateLimiter();
+        if (rateLimiter == null) {
+            return sendRequestAsync(request);
+        }
+        return rateLimiter.executeAsync(request, this::sendRequestAsync);
+    }
+
+    private Response sendRequest(Request request) {
+        ServerPool pool = activeServerPool();
+        if (pool == null) {
+            return sendRequest(httpClient, request);
+        }
+        return pool.execute(request, this::sendRequest);
+    }
+
+    private CompletableFuture<Response> sendRequestAsync(Request request) {
+        ServerPool pool = activeServerPool();
+        if (pool == null) {
+            return sendRequestAsync(httpClient, request);
+        }
+        return pool.executeAsync(request, this::sendRequestAsync);
+    }
+
+    private Response sendRequest(OkHttpClient client, Request request) {
         Response result = null;
         try {
-            result = httpClient.newCall(request).execute();
+            result = client.newCall(request).execute();
         } catch (IOException e) {
             // TODO Develop Custom Exception + Log
             throw new RuntimeException("Request Error " + e.toString());
@@ -93,6 +152,176 @@ public abstract class RestCRUD {
         return result;
     }
 
+    // Completes on an OkHttp dispatcher thread; cancelling the future cancels the call
+    private CompletableFuture<Response> sendRequestAsync(OkHttpClient client, Request request) {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        Call call = client.newCall(CancelledCallInterceptor.track(request));
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                CancelledCallInterceptor.closeDropped(call);
+                // TODO Develop Custom Exception + Log
+                result.completeExceptionally(new RuntimeException("Request Error " + e.toString(), e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (!result.complete(response)) {
+                    response.close();
+                }
+            }
+        });
+        result.whenComplete((response, throwable) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return result;
+    }
+
+    public HedgePolicy getHedgePolicy() {
+        return hedgePolicy;
+    }
+
+    // Overrides HedgePolicy.getDefault() for GETs of this resource
+    public void setHedgePolicy(HedgePolicy hedgePolicy) {
+        this.hedgePolicy = hedgePolicy;
+    }
+
+    // RestMetrics of all verbs of this resource, cumulative since start or RestMetrics.reset()
+    public String getMetricsSummary() {
+        return RestMetrics.toText(restUrl.getUrlGet(), restUrl.getUrlPost(),
+                restUrl.getUrlPut(), restUrl.getUrlDelete());
+    }
+
+    public List<EndpointMetrics.Snapshot> getMetricsSnapshot() {
+        return RestMetrics.snapshot(restUrl.getUrlGet(), restUrl.getUrlPost(),
+                restUrl.getUrlPut(), restUrl.getUrlDelete());
+    }
+
+    // Only what was recorded since the before snapshot
+    public String getMetricsSummary(List<EndpointMetrics.Snapshot> before) {
+        return RestMetrics.toText(before, getMetricsSnapshot());
+    }
+
+    private HedgePolicy activeHedgePolicy() {
+        return (hedgePolicy != null) ? hedgePolicy : HedgePolicy.getDefault();
+    }
+
+    private Response executeIdempotent(Request request) {
+        HedgePolicy policy = activeHedgePolicy();
+        if (policy == null) {
+            return executeRequest(request);
+        }
+        try {
+            return executeHedgedAsync(policy, request).join();
+        } catch (CompletionException e) {
+            throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private CompletableFuture<Response> executeIdempotentAsync(Request request) {
+        HedgePolicy policy = activeHedgePolicy();
+        if (policy == null) {
+            return executeRequestAsync(request);
+        }
+        return executeHedgedAsync(policy, request);
+    }
+
+    // The hedge itself does not take a token of the RateLimiter and goes to the same replica
+    private CompletableFuture<Response> executeHedgedAsync(HedgePolicy policy, Request request) {
+        RateLimiter rateLimiter = activeRateLimiter();
+        if (rateLimiter == null) {
+            return sendHedgedAsync(policy, request);
+        }
+        return rateLimiter.executeAsync(request, limited -> sendHedgedAsync(policy, limited));
+    }
+
+    private CompletableFuture<Response> sendHedgedAsync(HedgePolicy policy, Request request) {
+        ServerPool pool = activeServerPool();
+        if (pool == null) {
+            return policy.execute(httpClient, request);
+        }
+        return pool.executeAsync(request, policy::execute);
+    }
+
+    private ResponseCache activeResponseCache() {
+        return (responseCache != null) ? responseCache : ResponseCache.getDefault();
+    }
+
+    // Cached GETs of this resource are dropped by any write to it
+    private String cacheGroup() {
+        return restUrl.getUrlGet();
+    }
+
+    private Response executeGet(Request request) {
+        ResponseCache cache = activeResponseCache();
+        if (cache == null) {
+            return executeIdempotent(request);
+        }
+        return cache.execute(request, cacheGroup(), this::executeIdempotent);
+    }
+
+    CompletableFuture<Response> executeGetAsync(Request request) {
+        ResponseCache cache = activeResponseCache();
+        if (cache == null) {
+            return executeIdempotentAsync(request);
+        }
+        return cache.executeAsync(request, cacheGroup(), this::executeIdempotentAsync);
+    }
+
+    private Response executeWrite(Request request) {
+        ResponseCache cache = activeResponseCache();
+        if (cache == null) {
+            return executeRequest(request);
+        }
+        cache.invalidate(cacheGroup());
+        try {
+            return executeRequest(request);
+        } finally {
+            cache.invalidate(cacheGroup());
+        }
+    }
+
+    private CompletableFuture<Response> executeWriteAsync(Request request) {
+        ResponseCache cache = activeResponseCache();
+        if (cache == null) {
+            return executeRequestAsync(request);
+        }
+        cache.invalidate(cacheGroup());
+        CompletableFuture<Response> result = executeRequestAsync(request);
+        result.whenComplete((response, throwable) -> cache.invalidate(cacheGroup()));
+        return result;
+    }
+
+    // The public async verbs complete on the common pool, not on the OkHttp dispatcher thread,
+    // so reading and converting the body never holds up other calls.
+    // Cancelling the returned future cancels the call as well; a Response that has
+    // already arrived is closed on the pool thread instead of being read,
+    // so it is never closed while the reader is still reading it.
+    <R> CompletableFuture<R> completeAsync(CompletableFuture<Response> call, Function<Response, R> reader) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        call.whenCompleteAsync((response, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else if (result.isCancelled()) {
+                response.close();
+            } else {
+                try {
+                    result.complete(reader.apply(response));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
     private String responseBodyAsText(ResponseBody responseBody) {
         String responseText = null;
         try {
@@ -107,19 +336,51 @@ public abstract class RestCRUD {
 
     // Http Get - - - - - - - - - - - - - - - - - - - -
 
+    Request prepareGetRequest(RestParameters pathVariables, RestParameters urlParameters) {
+        return prepareRequestBuilder("GET", restUrl.getUrlGet(), pathVariables, urlParameters).get().build();
+    }
+
     public Response httpGetAsResponse(RestParameters pathVariables, RestParameters urlParameters) {
-        return executeRequest(prepareRequestBuilder(restUrl.getUrlGet(), pathVariables, urlParameters).get().build());
+        return executeGet(prepareGetRequest(pathVariables, urlParameters));
     }
 
     public String httpGetAsText(RestParameters pathVariables, RestParameters urlParameters) {
         return responseBodyAsText(httpGetAsResponse(pathVariables, urlParameters).body());
     }
 
+    CompletableFuture<Response> httpGetAsync(RestParameters pathVariables, RestParameters urlParameters) {
+        return executeGetAsync(prepareGetRequest(pathVariables, urlParameters));
+    }
+
+    public CompletableFuture<Response> httpGetAsResponseAsync(RestParameters pathVariables,
+            RestParameters urlParameters) {
+        return completeAsync(httpGetAsync(pathVariables, urlParameters), response -> response);
+    }
+
+    // Next pages of a collection come as absolute urls; metrics stay under the resource url
+    CompletableFuture<Response> httpGetUrlAsResponseAsync(String url) {
+        return executeGetAsync(new Request.Builder()
+                .url(url)
+                .tag(UrlTemplate.class, UrlTemplate.of(restUrl.getUrlGet()))
+                .tag(Cassette.class, activeCassette())
+                .get().build());
+    }
+
+    String renderUrlGet(RestParameters pathVariables, RestParameters urlParameters) {
+        return prepareRequestBuilder("GET", restUrl.getUrlGet(), pathVariables, urlParameters)
+                .build().url().toString();
+    }
+
+    public CompletableFuture<String> httpGetAsTextAsync(RestParameters pathVariables, RestParameters urlParameters) {
+        return completeAsync(httpGetAsync(pathVariables, urlParameters),
+                response -> responseBodyAsText(response.body()));
+    }
+
     // Http Post - - - - - - - - - - - - - - - - - - - -
 
     public Response httpPostAsResponse(RestParameters pathVariables, RestParameters urlParameters,
             RestParameters bodyParameters) {
-        return executeRequest(prepareRequestBuilder(restUrl.getUrlPost(), pathVariables, urlParameters)
+        return executeWrite(prepareRequestBuilder("POST", restUrl.getUrlPost(), pathVariables, urlParameters)
                 .post(prepareRequestBody(bodyParameters)).build());
     }
 
@@ -128,11 +389,47 @@ public abstract class RestCRUD {
         return responseBodyAsText(httpPostAsResponse(pathVariables, urlParameters, bodyParameters).body());
     }
 
+    CompletableFuture<Response> httpPostAsync(RestParameters pathVariables, RestParameters urlParameters,
+            RestParameters bodyParameters) {
+        return executeWriteAsync(prepareRequestBuilder("POST", restUrl.getUrlPost(), pathVariables, urlParameters)
+                .post(prepareRequestBody(bodyParameters)).build());
+    }
+
+    public CompletableFuture<Response> httpPostAsResponseAsync(RestParameters pathVariables,
+            RestParameters urlParameters, RestParameters bodyParameters) {
+        return completeAsync(httpPostAsync(pathVariables, urlParameters, bodyParameters), response -> response);
+    }
+
+    public CompletableFuture<String> httpPostAsTextAsync(RestParameters pathVariables,
+            RestParameters urlParameters, RestParameters bodyParameters) {
+        return completeAsync(httpPostAsync(pathVariables, urlParameters, bodyParameters),
+                response -> responseBodyAsText(response.body()));
+    }
+
+    // Multipart uploads are streamed from disk, see StreamingMultipartBody
+    public Response httpPostMultipartAsResponse(RestParameters pathVariables, RestParameters urlParameters,
+            StreamingMultipartBody multipartBody) {
+        return executeWrite(prepareRequestBuilder("POST", restUrl.getUrlPost(), pathVariables, urlParameters)
+                .post(multipartBody).build());
+    }
+
+    CompletableFuture<Response> httpPostMultipartAsync(RestParameters pathVariables,
+            RestParameters urlParameters, StreamingMultipartBody multipartBody) {
+        return executeWriteAsync(prepareRequestBuilder("POST", restUrl.getUrlPost(), pathVariables, urlParameters)
+                .post(multipartBody).build());
+    }
+
+    public CompletableFuture<Response> httpPostMultipartAsResponseAsync(RestParameters pathVariables,
+            RestParameters urlParameters, StreamingMultipartBody multipartBody) {
+        return completeAsync(httpPostMultipartAsync(pathVariables, urlParameters, multipartBody),
+                response -> response);
+    }
+
     // Http Put - - - - - - - - - - - - - - - - - - - -
 
     public Response httpPutAsResponse(RestParameters pathVariables, RestParameters urlParameters,
             RestParameters bodyParameters) {
-        return executeRequest(prepareRequestBuilder(restUrl.getUrlPut(), pathVariables, urlParameters)
+        return executeWrite(prepareRequestBuilder("PUT", restUrl.getUrlPut(), pathVariables, urlParameters)
                 .put(prepareRequestBody(bodyParameters)).build());
     }
 
@@ -141,11 +438,28 @@ public abstract class RestCRUD {
         return responseBodyAsText(httpPutAsResponse(pathVariables, urlParameters, bodyParameters).body());
     }
 
+    CompletableFuture<Response> httpPutAsync(RestParameters pathVariables, RestParameters urlParameters,
+            RestParameters bodyParameters) {
+        return executeWriteAsync(prepareRequestBuilder("PUT", restUrl.getUrlPut(), pathVariables, urlParameters)
+                .put(prepareRequestBody(bodyParameters)).build());
+    }
+
+    public CompletableFuture<Response> httpPutAsResponseAsync(RestParameters pathVariables,
+            RestParameters urlParameters, RestParameters bodyParameters) {
+        return completeAsync(httpPutAsync(pathVariables, urlParameters, bodyParameters), response -> response);
+    }
+
+    public CompletableFuture<String> httpPutAsTextAsync(RestParameters pathVariables,
+            RestParameters urlParameters, RestParameters bodyParameters) {
+        return completeAsync(httpPutAsync(pathVariables, urlParameters, bodyParameters),
+                response -> responseBodyAsText(response.body()));
+    }
+
     // Http Delete - - - - - - - - - - - - - - - - - - - -
 
     public Response httpDeleteAsResponse(RestParameters pathVariables, RestParameters urlParameters,
             RestParameters bodyParameters) {
-        return executeRequest(prepareRequestBuilder(restUrl.getUrlDelete(), pathVariables, urlParameters)
+        return executeWrite(prepareRequestBuilder("DELETE", restUrl.getUrlDelete(), pathVariables, urlParameters)
                 .delete(prepareRequestBody(bodyParameters)).build());
     }
 
@@ -154,4 +468,21 @@ public abstract class RestCRUD {
         return responseBodyAsText(httpDeleteAsResponse(pathVariables, urlParameters, bodyParameters).body());
     }
 
+    CompletableFuture<Response> httpDeleteAsync(RestParameters pathVariables, RestParameters urlParameters,
+            RestParameters bodyParameters) {
+        return executeWriteAsync(prepareRequestBuilder("DELETE", restUrl.getUrlDelete(), pathVariables, urlParameters)
+                .delete(prepareRequestBody(bodyParameters)).build());
+    }
+
+    public CompletableFuture<Response> httpDeleteAsResponseAsync(RestParameters pathVariables,
+            RestParameters urlParameters, RestParameters bodyParameters) {
+        return completeAsync(httpDeleteAsync(pathVariables, urlParameters, bodyParameters), response -> response);
+    }
+
+    public CompletableFuture<String> httpDeleteAsTextAsync(RestParameters pathVariables,
+            RestParameters urlParameters, RestParameters bodyParameters) {
+        return completeAsync(httpDeleteAsync(pathVariables, urlParameters, bodyParameters),
+                response -> responseBodyAsText(response.body()));
+    }
+
 }
@@ -0,0 +1,100 @@
+package com.softserve.edu.rest.engine;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Threads for blocking REST calls. With -Drest.threads=virtual on Java 21 every task
+// gets its own virtual thread, so thousands of calls waiting in executeRequest cost
+// little memory. Elsewhere, and on Java 8, platform daemon threads are used.
+// Virtual threads are created by reflection, the sources stay Java 8.
+public final class RestExecutors {
+
+    public static final String THREADS_PROPERTY = "rest.threads";
+    public static final String VIRTUAL = "virtual";
+    public static final String PLATFORM = "platform";
+
+    private static final Method OF_VIRTUAL = findOfVirtual();
+    private static volatile boolean virtual = VIRTUAL.equals(System.getProperty(THREADS_PROPERTY))
+            && (OF_VIRTUAL != null);
+
+    private RestExecutors() {
+    }
+
+    private static Method findOfVirtual() {
+        try {
+            return Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public static boolean isVirtualAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    public static boolean isVirtual() {
+        return virtual;
+    }
+
+    // Falls back to platform threads when the JVM has no virtual ones
+    public static void setVirtual(boolean virtual) {
+        RestExecutors.virtual = virtual && (OF_VIRTUAL != null);
+    }
+
+    public static String getThreadMode() {
+        return virtual ? VIRTUAL : PLATFORM;
+    }
+
+    // Thread.ofVirtual().name(name + "-", 0).factory()
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Virtual threads not available " + e.toString(), e);
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Executors.newThreadPerTaskExecutor(factory)
+    private static ExecutorService newVirtualExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, virtualThreadFactory(name));
+        } catch (ReflectiveOperationException e) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Virtual threads not available " + e.toString(), e);
+        }
+    }
+
+    // No limit on threads: a new virtual thread or a cached platform thread per task
+    public static ExecutorService newPerRequestExecutor(String name) {
+        if (virtual) {
+            return newVirtualExecutor(name);
+        }
+        return Executors.newCachedThreadPool(platformThreadFactory(name));
+    }
+
+    // The caller submits at most threads tasks at once; virtual threads are not pooled
+    public static ExecutorService newFixedExecutor(int threads, String name) {
+        if (virtual) {
+            return newVirtualExecutor(name);
+        }
+        return Executors.newFixedThreadPool(threads, platformThreadFactory(name));
+    }
+
+}
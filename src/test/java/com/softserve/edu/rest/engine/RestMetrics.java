@@ -0,0 +1,106 @@
+package com.softserve.edu.rest.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.GsonBuilder;
+
+import okhttp3.Request;
+
+// Process-wide metrics of the REST engine, one EndpointMetrics per verb and RestUrl
+public final class RestMetrics {
+
+    private static final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private static final Comparator<EndpointMetrics.Snapshot> SNAPSHOT_ORDER =
+            Comparator.comparing(EndpointMetrics.Snapshot::getUrlTemplate)
+                    .thenComparing(EndpointMetrics.Snapshot::getMethod);
+
+    private RestMetrics() {
+    }
+
+    // Requests built by RestCRUD carry their UrlTemplate as tag; others are grouped by host.
+    // Hedge attempts are counted apart, as method "GET (hedge)".
+    public static EndpointMetrics get(Request request) {
+        UrlTemplate urlTemplate = request.tag(UrlTemplate.class);
+        String template = (urlTemplate != null) ? urlTemplate.getTemplate()
+                : request.url().scheme() + "://" + request.url().host() + ":" + request.url().port() + "/*";
+        String method = HedgePolicy.isHedge(request) ? request.method() + " (hedge)" : request.method();
+        return get(method, template);
+    }
+
+    public static EndpointMetrics get(String method, String urlTemplate) {
+        return endpoints.computeIfAbsent(method + " " + urlTemplate,
+                key -> new EndpointMetrics(method, urlTemplate));
+    }
+
+    public static List<EndpointMetrics.Snapshot> snapshot() {
+        List<EndpointMetrics.Snapshot> result = new ArrayList<>();
+        for (EndpointMetrics endpointMetrics : endpoints.values()) {
+            result.add(endpointMetrics.snapshot());
+        }
+        result.sort(SNAPSHOT_ORDER);
+        return result;
+    }
+
+    public static String toText() {
+        StringBuilder result = new StringBuilder();
+        for (EndpointMetrics.Snapshot snapshot : snapshot()) {
+            result.append(snapshot).append("\n");
+        }
+        return result.toString();
+    }
+
+    // Only the endpoints of the given url templates, e.g. of one resource
+    public static List<EndpointMetrics.Snapshot> snapshot(String... urlTemplates) {
+        List<String> filter = Arrays.asList(urlTemplates);
+        List<EndpointMetrics.Snapshot> result = new ArrayList<>();
+        for (EndpointMetrics endpointMetrics : endpoints.values()) {
+            if (filter.contains(endpointMetrics.getUrlTemplate())) {
+                result.add(endpointMetrics.snapshot());
+            }
+        }
+        result.sort(SNAPSHOT_ORDER);
+        return result;
+    }
+
+    public static String toText(String... urlTemplates) {
+        StringBuilder result = new StringBuilder();
+        for (EndpointMetrics.Snapshot snapshot : snapshot(urlTemplates)) {
+            result.append(snapshot).append("\n");
+        }
+        return result.toString();
+    }
+
+    // What was recorded between the two snapshots, endpoints without calls are left out.
+    // The metrics are process-wide: calls other threads made meanwhile are included.
+    public static String toText(List<EndpointMetrics.Snapshot> before, List<EndpointMetrics.Snapshot> after) {
+        StringBuilder result = new StringBuilder();
+        for (EndpointMetrics.Snapshot snapshot : after) {
+            EndpointMetrics.Snapshot earlier = null;
+            for (EndpointMetrics.Snapshot candidate : before) {
+                if (candidate.getMethod().equals(snapshot.getMethod())
+                        && candidate.getUrlTemplate().equals(snapshot.getUrlTemplate())) {
+                    earlier = candidate;
+                }
+            }
+            EndpointMetrics.Snapshot delta = snapshot.since(earlier);
+            if (!delta.isEmpty()) {
+                result.append(delta).append("\n");
+            }
+        }
+        return result.toString();
+    }
+
+    public static String toJson() {
+        return new GsonBuilder().setPrettyPrinting().create().toJson(snapshot());
+    }
+
+    public static void reset() {
+        endpoints.clear();
+    }
+
+}
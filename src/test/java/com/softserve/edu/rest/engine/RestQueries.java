@@ -1,42 +1,227 @@
 package com.softserve.edu.rest.engine;
 
-import com.google.gson.Gson;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 import com.softserve.edu.rest.data.RestUrl;
 import com.softserve.edu.rest.entity.RestParameters;
 
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
 public abstract class RestQueries<T> extends RestCRUD {
 
-    private Class<T> clazz;
-    private Gson gson;
+    // Payload logging is off by default; a positive value logs at most that many bytes
+    private static volatile long payloadLogLimit = 0;
+    private static volatile EntityCodec defaultCodec = GsonCodec.getInstance();
+
+    private final Type entityType;
+    private EntityCodec codec;
+    private SingleFlight singleFlight;
+
+    // T is taken from the subclass declaration, e.g. "extends RestQueries<SimpleEntity>"
+    // or "new RestQueries<List<Item>>(restUrl) { }"
+    protected RestQueries(RestUrl restUrl) {
+        super(restUrl);
+        entityType = resolveEntityType(getClass());
+    }
 
-    protected RestQueries(RestUrl restUrl, Class<T> clazz) {
+    protected RestQueries(RestUrl restUrl, Type entityType) {
         super(restUrl);
-        this.clazz = clazz;  // TODO Get Class<T> from <T>
-        gson = new Gson();
+        this.entityType = entityType;
+    }
+
+    private static Type resolveEntityType(Class<?> resourceClass) {
+        Class<?> current = resourceClass;
+        while ((current != null) && (current.getSuperclass() != RestQueries.class)) {
+            current = current.getSuperclass();
+        }
+        if ((current != null) && (current.getGenericSuperclass() instanceof ParameterizedType)) {
+            Type type = ((ParameterizedType) current.getGenericSuperclass()).getActualTypeArguments()[0];
+            if ((type instanceof Class) || (type instanceof ParameterizedType)) {
+                return type;
+            }
+        }
+        // TODO Develop Custom Exception
+        throw new RuntimeException("Entity type of " + resourceClass.getName()
+                + " can not be resolved, pass it to the constructor");
+    }
+
+    public Type getEntityType() {
+        return entityType;
+    }
+
+    public static EntityCodec getDefaultCodec() {
+        return defaultCodec;
+    }
+
+    public static void setDefaultCodec(EntityCodec codec) {
+        RestQueries.defaultCodec = codec;
+    }
+
+    public EntityCodec getCodec() {
+        return codec;
+    }
+
+    // Overrides the default codec for this resource; null goes back to the default
+    public void setCodec(EntityCodec codec) {
+        this.codec = codec;
+    }
+
+    private EntityCodec activeCodec() {
+        return (codec != null) ? codec : defaultCodec;
+    }
+
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    // Overrides SingleFlight.getDefault() for GETs of this resource
+    public void setSingleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    private SingleFlight activeSingleFlight() {
+        return (singleFlight != null) ? singleFlight : SingleFlight.getDefault();
+    }
+
+    // Same url and headers give the same entity only with the same type and codec
+    private String flightKey(Request request) {
+        return request.method() + " " + request.url() + "\n" + request.headers()
+                + entityType.getTypeName() + "\n" + activeCodec().getClass().getName();
+    }
+
+    public static long getPayloadLogLimit() {
+        return payloadLogLimit;
     }
 
-    private T ConvertToEntity(String json) {
-        System.out.println("json: " + json + " clazz: " + clazz.getName());
-        return gson.fromJson(json, clazz);
+    public static void setPayloadLogLimit(long payloadLogLimit) {
+        RestQueries.payloadLogLimit = payloadLogLimit;
+    }
+
+    private void logPayload(Response response) {
+        long limit = payloadLogLimit;
+        if (limit <= 0) {
+            return;
+        }
+        try {
+            // peekBody() copies at most limit bytes and leaves the body unread
+            String json = response.peekBody(limit).string();
+            // TODO User Logger
+            System.out.println("json: " + json + " type: " + entityType.getTypeName());
+        } catch (IOException e) {
+            System.out.println("json: <unavailable> " + e.toString() + " type: " + entityType.getTypeName());
+        }
+    }
+
+    // Parses straight from the response stream without building the whole json String
+    T ConvertToEntity(Response response) {
+        logPayload(response);
+        try (ResponseBody responseBody = response.body()) {
+            return activeCodec().decode(responseBody, entityType);
+        } catch (IOException e) {
+            // TODO Develop Custom Exception + Log
+            throw new RuntimeException("Error to convert ResponseBody to " + entityType.getTypeName() + ". "
+                    + e.toString());
+        }
     }
 
     public T httpGetAsEntity(RestParameters pathVariables, RestParameters urlParameters) {
-        return ConvertToEntity(httpGetAsText(pathVariables, urlParameters));
+        if (activeSingleFlight() == null) {
+            return ConvertToEntity(httpGetAsResponse(pathVariables, urlParameters));
+        }
+        try {
+            return httpGetAsEntityAsync(pathVariables, urlParameters).join();
+        } catch (CompletionException e) {
+            throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause() : e;
+        }
     }
 
     public T httpPostAsEntity(RestParameters pathVariables, RestParameters urlParameters,
             RestParameters bodyParameters) {
-        return ConvertToEntity(httpPostAsText(pathVariables, urlParameters, bodyParameters));
+        return ConvertToEntity(httpPostAsResponse(pathVariables, urlParameters, bodyParameters));
+    }
+
+    public T httpPostMultipartAsEntity(RestParameters pathVariables, RestParameters urlParameters,
+            StreamingMultipartBody multipartBody) {
+        return ConvertToEntity(httpPostMultipartAsResponse(pathVariables, urlParameters, multipartBody));
     }
 
     public T httpPutAsEntity(RestParameters pathVariables, RestParameters urlParameters,
             RestParameters bodyParameters) {
-        return ConvertToEntity(httpPutAsText(pathVariables, urlParameters, bodyParameters));
+        return ConvertToEntity(httpPutAsResponse(pathVariables, urlParameters, bodyParameters));
     }
 
     public T httpDeleteAsEntity(RestParameters pathVariables, RestParameters urlParameters,
             RestParameters bodyParameters) {
-        return ConvertToEntity(httpDeleteAsText(pathVariables, urlParameters, bodyParameters));
+        return ConvertToEntity(httpDeleteAsResponse(pathVariables, urlParameters, bodyParameters));
+    }
+
+    // Pages - - - - - - - - - - - - - - - - - - - -
+    // T is one page, elements picks its items, e.g. SimpleArrayEntity::getContent
+
+    public <E> PageIterator<T, E> httpGetPages(RestParameters pathVariables, RestParameters urlParameters,
+            PageSettings pageSettings, Function<T, List<E>> elements) {
+        return new PageIterator<>(this, renderUrlGet(pathVariables, urlParameters), pageSettings, elements);
+    }
+
+    // Close the stream (try-with-resources) to cancel pages still in flight when it is left early
+    public <E> Stream<E> httpGetAsStream(RestParameters pathVariables, RestParameters urlParameters,
+            PageSettings pageSettings, Function<T, List<E>> elements) {
+        PageIterator<T, E> pages = httpGetPages(pathVariables, urlParameters, pageSettings, elements);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(pages::close);
+    }
+
+    public RestBatch<T> batch(int maxConcurrency) {
+        return new RestBatch<>(this, maxConcurrency);
+    }
+
+    // Async - - - - - - - - - - - - - - - - - - - -
+    // Json is read and converted on the common pool, see RestCRUD.completeAsync()
+
+    private CompletableFuture<T> convertAsync(CompletableFuture<Response> call) {
+        return completeAsync(call, this::ConvertToEntity);
+    }
+
+    public CompletableFuture<T> httpGetAsEntityAsync(RestParameters pathVariables, RestParameters urlParameters) {
+        SingleFlight flight = activeSingleFlight();
+        if (flight == null) {
+            return convertAsync(httpGetAsync(pathVariables, urlParameters));
+        }
+        Request request = prepareGetRequest(pathVariables, urlParameters);
+        return flight.execute(flightKey(request), () -> convertAsync(executeGetAsync(request)));
+    }
+
+    public CompletableFuture<T> httpPostAsEntityAsync(RestParameters pathVariables, RestParameters urlParameters,
+            RestParameters bodyParameters) {
+        return convertAsync(httpPostAsync(pathVariables, urlParameters, bodyParameters));
+    }
+
+    public CompletableFuture<T> httpPostMultipartAsEntityAsync(RestParameters pathVariables,
+            RestParameters urlParameters, StreamingMultipartBody multipartBody) {
+        return convertAsync(httpPostMultipartAsync(pathVariables, urlParameters, multipartBody));
+    }
+
+    public CompletableFuture<T> httpPutAsEntityAsync(RestParameters pathVariables, RestParameters urlParameters,
+            RestParameters bodyParameters) {
+        return convertAsync(httpPutAsync(pathVariables, urlParameters, bodyParameters));
+    }
+
+    public CompletableFuture<T> httpDeleteAsEntityAsync(RestParameters pathVariables, RestParameters urlParameters,
+            RestParameters bodyParameters) {
+        return convertAsync(httpDeleteAsync(pathVariables, urlParameters, bodyParameters));
     }
 
 }
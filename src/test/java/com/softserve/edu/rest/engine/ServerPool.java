@@ -0,0 +1,333 @@
+package com.softserve.edu.rest.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Replicas of one service behind a logical server url, e.g. "http://token-service/".
+// Every request goes to the replica the Selector picks; scheme, host and port are
+// replaced, the path stays. Health is checked passively: after maxFailures failed
+// (IOException, 5xx) or slow answers in a row a replica is ejected for ejectMillis.
+// When all replicas are ejected the pool uses all of them rather than none.
+public class ServerPool {
+
+    public static final int DEFAULT_MAX_FAILURES = 3;
+    public static final long DEFAULT_EJECT_MILLIS = 5000L;
+    public static final double DEFAULT_EWMA_ALPHA = 0.3;
+
+    private static final long HIGHEST_TRACKABLE_MICROS = 60L * 1000000L;
+    private static final Map<String, ServerPool> pools = new ConcurrentHashMap<>();
+
+    public interface Selector {
+        // candidates is never empty
+        Replica select(List<Replica> candidates);
+    }
+
+    public static final class Replica {
+        private final String server;
+        private final HttpUrl url;
+        private final AtomicInteger inFlight;
+        private final AtomicLong requests;
+        private final AtomicLong failures;
+        private final AtomicLong ejections;
+        private final Histogram latencies;
+        private volatile double ewmaMillis;
+        private int consecutiveFailures;
+        private volatile long ejectedUntilMillis;
+
+        private Replica(String server) {
+            this.server = HttpClientRegistry.serverKey(server);
+            url = HttpUrl.parse(this.server);
+            inFlight = new AtomicInteger();
+            requests = new AtomicLong();
+            failures = new AtomicLong();
+            ejections = new AtomicLong();
+            latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 2);
+        }
+
+        public String getServer() {
+            return server;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        public long getEjections() {
+            return ejections.get();
+        }
+
+        // 0 until the first answer
+        public double getEwmaMillis() {
+            return ewmaMillis;
+        }
+
+        public double getLatencyMillis(double percentile) {
+            return latencies.getTotalCount() == 0 ? 0 : latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        public boolean isEjected() {
+            return System.currentTimeMillis() < ejectedUntilMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Replica [server=%s, requests=%d, failures=%d, inFlight=%d, ewma=%.1fms,"
+                    + " p50=%.1fms, p99=%.1fms, ejections=%d, ejected=%s]",
+                    server, getRequests(), getFailures(), getInFlight(), getEwmaMillis(),
+                    getLatencyMillis(50), getLatencyMillis(99), getEjections(), isEjected());
+        }
+    }
+
+    // Selectors - - - - - - - - - - - - - - - - - - - -
+
+    public static Selector roundRobin() {
+        AtomicInteger next = new AtomicInteger();
+        return candidates -> candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    // Ties go round, so equal replicas share the load
+    public static Selector leastInFlight() {
+        AtomicInteger next = new AtomicInteger();
+        return candidates -> {
+            int offset = Math.floorMod(next.getAndIncrement(), candidates.size());
+            Replica best = null;
+            for (int i = 0; i < candidates.size(); i++) {
+                Replica replica = candidates.get((offset + i) % candidates.size());
+                if ((best == null) || (replica.getInFlight() < best.getInFlight())) {
+                    best = replica;
+                }
+            }
+            return best;
+        };
+    }
+
+    // Lowest ewma * (inFlight + 1); replicas without an answer yet are tried first
+    public static Selector ewmaLatency() {
+        AtomicInteger next = new AtomicInteger();
+        return candidates -> {
+            int offset = Math.floorMod(next.getAndIncrement(), candidates.size());
+            Replica best = null;
+            double bestCost = Double.MAX_VALUE;
+            for (int i = 0; i < candidates.size(); i++) {
+                Replica replica = candidates.get((offset + i) % candidates.size());
+                double cost = replica.getEwmaMillis() * (replica.getInFlight() + 1);
+                if ((best == null) || (cost < bestCost)) {
+                    best = replica;
+                    bestCost = cost;
+                }
+            }
+            return best;
+        };
+    }
+
+    private final List<Replica> replicas;
+    private final Selector selector;
+    private int maxFailures;
+    private long ejectMillis;
+    private long slowMillis;
+    private double ewmaAlpha;
+
+    public ServerPool(Selector selector, String... servers) {
+        if (servers.length == 0) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("ServerPool needs at least one server");
+        }
+        List<Replica> replicaList = new ArrayList<>();
+        for (String server : servers) {
+            replicaList.add(new Replica(server));
+        }
+        replicas = Collections.unmodifiableList(replicaList);
+        this.selector = selector;
+        maxFailures = DEFAULT_MAX_FAILURES;
+        ejectMillis = DEFAULT_EJECT_MILLIS;
+        slowMillis = -1;
+        ewmaAlpha = DEFAULT_EWMA_ALPHA;
+    }
+
+    // Registry - - - - - - - - - - - - - - - - - - - -
+
+    // Resources of this logical server use the pool from now on
+    public static ServerPool bind(String server, ServerPool serverPool) {
+        pools.put(HttpClientRegistry.serverKey(server), serverPool);
+        return serverPool;
+    }
+
+    // null when the server is not a pool
+    public static ServerPool get(String server) {
+        return pools.isEmpty() ? null : pools.get(HttpClientRegistry.serverKey(server));
+    }
+
+    public static void remove(String server) {
+        pools.remove(HttpClientRegistry.serverKey(server));
+    }
+
+    public static void reset() {
+        pools.clear();
+    }
+
+    // Settings - - - - - - - - - - - - - - - - - - - -
+
+    public ServerPool setMaxFailures(int maxFailures) {
+        this.maxFailures = maxFailures;
+        return this;
+    }
+
+    public ServerPool setEjectMillis(long ejectMillis) {
+        this.ejectMillis = ejectMillis;
+        return this;
+    }
+
+    // An answer slower than this counts as a failure; negative switches it off
+    public ServerPool setSlowMillis(long slowMillis) {
+        this.slowMillis = slowMillis;
+        return this;
+    }
+
+    public ServerPool setEwmaAlpha(double ewmaAlpha) {
+        this.ewmaAlpha = ewmaAlpha;
+        return this;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // Selection - - - - - - - - - - - - - - - - - - - -
+
+    Replica select() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (!replica.isEjected()) {
+                healthy.add(replica);
+            }
+        }
+        return selector.select(healthy.isEmpty() ? replicas : healthy);
+    }
+
+    private Request retarget(Request request, Replica replica) {
+        return request.newBuilder()
+                .url(request.url().newBuilder()
+                        .scheme(replica.url.scheme())
+                        .host(replica.url.host())
+                        .port(replica.url.port())
+                        .build())
+                .build();
+    }
+
+    private void record(Replica replica, long startNanos, Response response, Throwable throwable) {
+        replica.inFlight.decrementAndGet();
+        // A caller that gave up tells nothing about the replica
+        if ((throwable instanceof CancellationException) || ((throwable instanceof CompletionException)
+                && (throwable.getCause() instanceof CancellationException))) {
+            return;
+        }
+        long micros = Math.min((System.nanoTime() - startNanos) / 1000, HIGHEST_TRACKABLE_MICROS);
+        boolean failed = (throwable != null) || (response.code() >= 500)
+                || ((slowMillis >= 0) && (micros > slowMillis * 1000));
+        if (throwable == null) {
+            replica.latencies.recordValue(micros);
+        }
+        synchronized (replica) {
+            if (throwable == null) {
+                double millis = micros / 1000.0;
+                replica.ewmaMillis = (replica.ewmaMillis == 0) ? millis
+                        : ewmaAlpha * millis + (1 - ewmaAlpha) * replica.ewmaMillis;
+            }
+            if (!failed) {
+                replica.consecutiveFailures = 0;
+                return;
+            }
+            replica.failures.incrementAndGet();
+            replica.consecutiveFailures++;
+            if ((replica.consecutiveFailures >= maxFailures) && (!replica.isEjected())) {
+                replica.ejectedUntilMillis = System.currentTimeMillis() + ejectMillis;
+                replica.ejections.incrementAndGet();
+                // One more failure after the ejection ends sends it back out
+                replica.consecutiveFailures = maxFailures - 1;
+            }
+        }
+    }
+
+    // Execution - - - - - - - - - - - - - - - - - - - -
+
+    public Response execute(Request request, BiFunction<OkHttpClient, Request, Response> network) {
+        Replica replica = select();
+        replica.requests.incrementAndGet();
+        replica.inFlight.incrementAndGet();
+        long startNanos = System.nanoTime();
+        Response response;
+        try {
+            response = network.apply(HttpClientRegistry.getClient(replica.server), retarget(request, replica));
+        } catch (RuntimeException e) {
+            record(replica, startNanos, null, e);
+            throw e;
+        }
+        record(replica, startNanos, response, null);
+        return response;
+    }
+
+    public CompletableFuture<Response> executeAsync(Request request,
+            BiFunction<OkHttpClient, Request, CompletableFuture<Response>> network) {
+        Replica replica = select();
+        replica.requests.incrementAndGet();
+        replica.inFlight.incrementAndGet();
+        long startNanos = System.nanoTime();
+        CompletableFuture<Response> result;
+        try {
+            result = network.apply(HttpClientRegistry.getClient(replica.server), retarget(request, replica));
+        } catch (RuntimeException e) {
+            record(replica, startNanos, null, e);
+            throw e;
+        }
+        result.whenComplete((response, throwable) -> record(replica, startNanos, response, throwable));
+        return result;
+    }
+
+    // Statistics - - - - - - - - - - - - - - - - - - - -
+
+    public int getHealthyCount() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (!replica.isEjected()) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("ServerPool [healthy=")
+                .append(getHealthyCount()).append('/').append(replicas.size()).append(']');
+        for (Replica replica : replicas) {
+            result.append("\n\t").append(replica);
+        }
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.softserve.edu.rest.engine;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Concurrent GETs with the same key share one call and its decoded entity
+// (the same object, so callers must not change it). Only calls in flight are
+// shared, a GET after the answer goes to the server again.
+// Every caller gets a future of its own: cancelling it leaves the flight,
+// and the shared call is cancelled when the last caller has left.
+public class SingleFlight {
+
+    private static volatile SingleFlight defaultFlight;
+
+    private final class Flight<T> {
+        private final String key;
+        private final CompletableFuture<T> shared;
+        private CompletableFuture<T> call;
+        private int callers;
+        private boolean closed;
+
+        private Flight(String key) {
+            this.key = key;
+            shared = new CompletableFuture<>();
+            callers = 1;
+        }
+
+        private synchronized boolean join() {
+            if (closed || shared.isDone()) {
+                return false;
+            }
+            callers++;
+            return true;
+        }
+
+        private void start(Supplier<CompletableFuture<T>> supplier) {
+            CompletableFuture<T> started;
+            try {
+                started = supplier.get();
+            } catch (RuntimeException e) {
+                flights.remove(key, this);
+                shared.completeExceptionally(e);
+                return;
+            }
+            started.whenComplete((entity, throwable) -> {
+                flights.remove(key, this);
+                if (throwable != null) {
+                    shared.completeExceptionally(throwable);
+                } else {
+                    shared.complete(entity);
+                }
+            });
+            boolean cancel;
+            synchronized (this) {
+                call = started;
+                cancel = closed;
+            }
+            if (cancel) {
+                started.cancel(true);
+            }
+        }
+
+        private void leave() {
+            CompletableFuture<T> cancel = null;
+            synchronized (this) {
+                callers--;
+                if ((callers > 0) || shared.isDone()) {
+                    return;
+                }
+                closed = true;
+                cancel = call;
+            }
+            flights.remove(key, this);
+            cancelledFlights.incrementAndGet();
+            shared.cancel(false);
+            if (cancel != null) {
+                cancel.cancel(true);
+            }
+        }
+
+        private CompletableFuture<T> follow() {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            shared.whenComplete((entity, throwable) -> {
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(entity);
+                }
+            });
+            result.whenComplete((entity, throwable) -> {
+                if (result.isCancelled()) {
+                    leave();
+                }
+            });
+            return result;
+        }
+    }
+
+    private final Map<String, Flight<?>> flights;
+    private final AtomicLong calls;
+    private final AtomicLong saved;
+    private final AtomicLong cancelledFlights;
+
+    public SingleFlight() {
+        flights = new ConcurrentHashMap<>();
+        calls = new AtomicLong();
+        saved = new AtomicLong();
+        cancelledFlights = new AtomicLong();
+    }
+
+    // Used by every resource that has no SingleFlight of its own; null switches it off
+    public static SingleFlight getDefault() {
+        return defaultFlight;
+    }
+
+    public static void setDefault(SingleFlight singleFlight) {
+        defaultFlight = singleFlight;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> call) {
+        Flight<?>[] created = new Flight<?>[1];
+        Flight<T> flight = (Flight<T>) flights.compute(key, (flightKey, current) -> {
+            if ((current != null) && current.join()) {
+                return current;
+            }
+            created[0] = new Flight<T>(flightKey);
+            return created[0];
+        });
+        CompletableFuture<T> result = flight.follow();
+        if (created[0] == flight) {
+            calls.incrementAndGet();
+            flight.start(call);
+        } else {
+            saved.incrementAndGet();
+        }
+        return result;
+    }
+
+    // Statistics - - - - - - - - - - - - - - - - - - - -
+
+    public int getInFlight() {
+        return flights.size();
+    }
+
+    // Calls that went to the server
+    public long getCalls() {
+        return calls.get();
+    }
+
+    // Callers that joined a call in flight instead of sending their own
+    public long getSaved() {
+        return saved.get();
+    }
+
+    // Shared calls cancelled because every caller cancelled
+    public long getCancelledFlights() {
+        return cancelledFlights.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlight [inFlight=" + getInFlight() + ", calls=" + getCalls() + ", saved=" + getSaved()
+                + ", cancelledFlights=" + getCancelledFlights() + "]";
+    }
+
+}
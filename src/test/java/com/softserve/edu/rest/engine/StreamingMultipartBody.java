@@ -0,0 +1,235 @@
+package com.softserve.edu.rest.engine;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+// multipart/form-data with file parts read from disk while the request is written.
+// FileChannel.transferTo() moves each file into the sink in chunks, so the heap
+// does not grow with the file size. The bytes are the same as okhttp3.MultipartBody
+// sends, and Content-Length is known in advance.
+// Files are opened again on every write, so OkHttp may retry the request.
+public class StreamingMultipartBody extends RequestBody {
+
+    public static final long DEFAULT_CHUNK_BYTES = 64 * 1024L;
+    private static final MediaType OCTET_STREAM = MediaType.parse("application/octet-stream");
+    private static final byte[] CRLF = { '\r', '\n' };
+    private static final byte[] DASHDASH = { '-', '-' };
+
+    public interface ProgressListener {
+        // totalBytes is the whole body, as in Content-Length
+        void onProgress(long writtenBytes, long totalBytes);
+    }
+
+    private static final class Part {
+        private final String name;
+        private final String value;
+        private final Path file;
+        private final MediaType contentType;
+        private final byte[] headers;
+
+        private Part(String name, String value, Path file, MediaType contentType, byte[] headers) {
+            this.name = name;
+            this.value = value;
+            this.file = file;
+            this.contentType = contentType;
+            this.headers = headers;
+        }
+
+        private long length() throws IOException {
+            return (file == null) ? value.getBytes(StandardCharsets.UTF_8).length : Files.size(file);
+        }
+    }
+
+    private final String boundary;
+    private final List<Part> parts;
+    private long chunkBytes;
+    private ProgressListener progressListener;
+
+    public StreamingMultipartBody(String boundary) {
+        this.boundary = boundary;
+        parts = new ArrayList<>();
+        chunkBytes = DEFAULT_CHUNK_BYTES;
+    }
+
+    public StreamingMultipartBody() {
+        this(UUID.randomUUID().toString());
+    }
+
+    public String getBoundary() {
+        return boundary;
+    }
+
+    public StreamingMultipartBody addField(String name, String value) {
+        parts.add(new Part(name, value, null, null, partHeaders(name, null, null,
+                value.getBytes(StandardCharsets.UTF_8).length)));
+        return this;
+    }
+
+    public StreamingMultipartBody addFile(String name, Path file, MediaType contentType) {
+        MediaType partType = (contentType == null) ? OCTET_STREAM : contentType;
+        long length;
+        try {
+            length = Files.size(file);
+        } catch (IOException e) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("File can not be read " + file + " " + e.toString());
+        }
+        parts.add(new Part(name, null, file, partType,
+                partHeaders(name, file.getFileName().toString(), partType, length)));
+        return this;
+    }
+
+    public StreamingMultipartBody addFile(String name, Path file) {
+        return addFile(name, file, null);
+    }
+
+    // Bytes written to the sink between progress calls
+    public StreamingMultipartBody setChunkBytes(long chunkBytes) {
+        this.chunkBytes = chunkBytes;
+        return this;
+    }
+
+    // Called from the thread that writes the request
+    public StreamingMultipartBody setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    private static byte[] partHeaders(String name, String fileName, MediaType contentType, long length) {
+        StringBuilder disposition = new StringBuilder("form-data; name=");
+        appendQuoted(disposition, name);
+        if (fileName != null) {
+            disposition.append("; filename=");
+            appendQuoted(disposition, fileName);
+        }
+        StringBuilder headers = new StringBuilder()
+                .append("Content-Disposition: ").append(disposition).append("\r\n");
+        if (contentType != null) {
+            headers.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        headers.append("Content-Length: ").append(length).append("\r\n");
+        return headers.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Same escaping as okhttp3.MultipartBody
+    private static void appendQuoted(StringBuilder target, String key) {
+        target.append('"');
+        for (int i = 0; i < key.length(); i++) {
+            char ch = key.charAt(i);
+            if (ch == '\n') {
+                target.append("%0A");
+            } else if (ch == '\r') {
+                target.append("%0D");
+            } else if (ch == '"') {
+                target.append("%22");
+            } else {
+                target.append(ch);
+            }
+        }
+        target.append('"');
+    }
+
+    @Override
+    public MediaType contentType() {
+        return MediaType.parse("multipart/form-data; boundary=" + boundary);
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        byte[] boundaryBytes = boundary.getBytes(StandardCharsets.UTF_8);
+        long length = 0;
+        for (Part part : parts) {
+            length += DASHDASH.length + boundaryBytes.length + CRLF.length
+                    + part.headers.length + CRLF.length + part.length() + CRLF.length;
+        }
+        return length + DASHDASH.length + boundaryBytes.length + DASHDASH.length + CRLF.length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        long totalBytes = contentLength();
+        long writtenBytes = 0;
+        byte[] boundaryBytes = boundary.getBytes(StandardCharsets.UTF_8);
+        for (Part part : parts) {
+            sink.write(DASHDASH).write(boundaryBytes).write(CRLF).write(part.headers).write(CRLF);
+            writtenBytes += DASHDASH.length + boundaryBytes.length + 2 * CRLF.length + part.headers.length;
+            if (part.file == null) {
+                byte[] value = part.value.getBytes(StandardCharsets.UTF_8);
+                sink.write(value);
+                writtenBytes += value.length;
+            } else {
+                writtenBytes = transferFile(part.file, sink, writtenBytes, totalBytes);
+            }
+            sink.write(CRLF);
+            writtenBytes += CRLF.length;
+            reportProgress(writtenBytes, totalBytes);
+        }
+        sink.write(DASHDASH).write(boundaryBytes).write(DASHDASH).write(CRLF);
+        sink.flush();
+        reportProgress(totalBytes, totalBytes);
+    }
+
+    // The okio sink is a WritableByteChannel; every chunk is emitted before the next one is read
+    private long transferFile(Path file, BufferedSink sink, long writtenBytes, long totalBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = channel.transferTo(position, Math.min(chunkBytes, size - position), sink);
+                if (transferred <= 0) {
+                    // TODO Develop Custom Exception
+                    throw new IOException("File " + file + " ended at " + position + " of " + size);
+                }
+                position += transferred;
+                sink.emit();
+                reportProgress(writtenBytes + position, totalBytes);
+            }
+            return writtenBytes + size;
+        }
+    }
+
+    private void reportProgress(long writtenBytes, long totalBytes) {
+        if (progressListener != null) {
+            progressListener.onProgress(writtenBytes, totalBytes);
+        }
+    }
+
+    // Stable text for keys, e.g. of a Cassette; the random boundary and file bytes are left out
+    public String describe() {
+        StringBuilder result = new StringBuilder();
+        for (Part part : parts) {
+            result.append(part.name).append('=');
+            if (part.file == null) {
+                result.append(part.value);
+            } else {
+                long length;
+                try {
+                    length = part.length();
+                } catch (IOException e) {
+                    length = -1;
+                }
+                result.append("file:").append(part.file.getFileName()).append(':').append(length)
+                        .append(':').append(part.contentType);
+            }
+            result.append('&');
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingMultipartBody [boundary=" + boundary + ", parts=" + describe() + "]";
+    }
+
+}
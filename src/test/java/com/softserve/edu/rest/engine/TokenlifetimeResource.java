@@ -6,8 +6,12 @@ import com.softserve.edu.rest.entity.SimpleEntity;
 public class TokenlifetimeResource extends RestQueries<SimpleEntity> {
 
     public TokenlifetimeResource() {
-        super(RestUrlRepository.getTokenLifetime(), SimpleEntity.class);
+        super(RestUrlRepository.getTokenLifetime());
         System.out.println("***** public TokenlifetimeResource()");
     }
 
+    public TokenlifetimeResource(String server) {
+        super(RestUrlRepository.getTokenLifetime(server));
+    }
+
 }
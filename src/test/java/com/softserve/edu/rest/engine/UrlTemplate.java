@@ -0,0 +1,100 @@
+package com.softserve.edu.rest.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.softserve.edu.rest.entity.RestParameters;
+
+// Url with {variable} placeholders, parsed once and cached by template text.
+// The query is the cached encoded form of RestParameters.
+public final class UrlTemplate {
+
+    private static final Map<String, UrlTemplate> templates = new ConcurrentHashMap<>();
+    private final String template;
+    // literals.length == variables.length + 1
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalsLength;
+    private final boolean hasQuery;
+
+    private UrlTemplate(String template) {
+        this.template = template;
+        List<String> literalList = new ArrayList<>();
+        List<String> variableList = new ArrayList<>();
+        int position = 0;
+        int open = template.indexOf('{');
+        while (open >= 0) {
+            int close = template.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            literalList.add(template.substring(position, open));
+            variableList.add(template.substring(open + 1, close));
+            position = close + 1;
+            open = template.indexOf('{', position);
+        }
+        literalList.add(template.substring(position));
+        literals = literalList.toArray(new String[0]);
+        variables = variableList.toArray(new String[0]);
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        literalsLength = length;
+        hasQuery = template.indexOf('?') >= 0;
+    }
+
+    public static UrlTemplate of(String template) {
+        return templates.computeIfAbsent(template, UrlTemplate::new);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public int getVariableCount() {
+        return variables.length;
+    }
+
+    // Placeholders without a value are left as is
+    public String render(RestParameters pathVariables, RestParameters urlParameters) {
+        if ((variables.length == 0) && ((urlParameters == null) || (urlParameters.isEmpty()))) {
+            return template;
+        }
+        StringBuilder url = new StringBuilder(estimateLength(pathVariables, urlParameters));
+        url.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            String value = (pathVariables == null) ? null : pathVariables.getParameter(variables[i]);
+            if (value == null) {
+                url.append('{').append(variables[i]).append('}');
+            } else {
+                PercentEncoder.appendPathSegment(url, value);
+            }
+            url.append(literals[i + 1]);
+        }
+        if ((urlParameters != null) && (!urlParameters.isEmpty())) {
+            url.append(hasQuery ? '&' : '?').append(urlParameters.getEncoded());
+        }
+        return url.toString();
+    }
+
+    private int estimateLength(RestParameters pathVariables, RestParameters urlParameters) {
+        int length = literalsLength;
+        for (String variable : variables) {
+            String value = (pathVariables == null) ? null : pathVariables.getParameter(variable);
+            length += (value == null) ? variable.length() + 2 : value.length();
+        }
+        if (urlParameters != null) {
+            length += urlParameters.getEncoded().length() + 1;
+        }
+        return length + 16;
+    }
+
+    @Override
+    public String toString() {
+        return "UrlTemplate [template=" + template + "]";
+    }
+
+}
@@ -1,26 +1,159 @@
 package com.softserve.edu.rest.entity;
 
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import com.softserve.edu.rest.engine.PercentEncoder;
+
+// Insertion-ordered parameters in two parallel arrays; a key may repeat.
+// The encoded "key=value&..." form is built once and kept until the next change.
+// Not thread safe; reset() empties it for reuse without new arrays.
 public class RestParameters {
-    private Map<String, String> parameters;
+
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private String[] keys;
+    private String[] values;
+    private int size;
+    private String encoded;
+    private byte[] encodedBytes;
 
     public RestParameters() {
-        parameters = new HashMap<>();
+        keys = new String[DEFAULT_CAPACITY];
+        values = new String[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    private void changed() {
+        encoded = null;
+        encodedBytes = null;
     }
 
+    // Appends; an existing key gets one more value
     public RestParameters addParameter(String key, String value) {
-        parameters.put(key, value);
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        changed();
         return this;
     }
 
+    // Replaces all values of the key with one value
+    public RestParameters setParameter(String key, String value) {
+        removeParameter(key);
+        return addParameter(key, value);
+    }
+
+    public RestParameters removeParameter(String key) {
+        int target = 0;
+        for (int i = 0; i < size; i++) {
+            if (!keys[i].equals(key)) {
+                keys[target] = keys[i];
+                values[target] = values[i];
+                target++;
+            }
+        }
+        Arrays.fill(keys, target, size, null);
+        Arrays.fill(values, target, size, null);
+        size = target;
+        changed();
+        return this;
+    }
+
+    public RestParameters reset() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        changed();
+        return this;
+    }
+
+    // First value of the key
     public String getParameter(String key) {
-        return parameters.get(key);
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    public List<String> getParameters(String key) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                result.add(values[i]);
+            }
+        }
+        return result;
     }
 
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String getKey(int index) {
+        return keys[index];
+    }
+
+    public String getValue(int index) {
+        return values[index];
+    }
+
+    // First value per key, in insertion order
     public Map<String, String> getAllParameters() {
-        return parameters;
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            result.putIfAbsent(keys[i], values[i]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    // Query string / x-www-form-urlencoded body, without leading '?'
+    public String getEncoded() {
+        if (encoded == null) {
+            StringBuilder result = new StringBuilder(size * 16);
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    result.append('&');
+                }
+                PercentEncoder.appendQueryComponent(result, keys[i]);
+                result.append('=');
+                PercentEncoder.appendQueryComponent(result, values[i]);
+            }
+            encoded = result.toString();
+        }
+        return encoded;
+    }
+
+    // Shared cached array, do not modify
+    public byte[] getEncodedBytes() {
+        if (encodedBytes == null) {
+            encodedBytes = getEncoded().getBytes(StandardCharsets.UTF_8);
+        }
+        return encodedBytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("RestParameters [");
+        for (int i = 0; i < size; i++) {
+            result.append(i > 0 ? ", " : "").append(keys[i]).append('=').append(values[i]);
+        }
+        return result.append(']').toString();
     }
 
 }
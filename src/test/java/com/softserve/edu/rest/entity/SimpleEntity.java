@@ -4,6 +4,10 @@ public class SimpleEntity {
 
     private String content;
 
+    // For json codecs
+    private SimpleEntity() {
+    }
+
     public SimpleEntity(String content) {
         this.content = content;
     }
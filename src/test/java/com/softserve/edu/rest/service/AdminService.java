@@ -1,7 +1,10 @@
 package com.softserve.edu.rest.service;
 
+import java.util.List;
+
 import com.softserve.edu.rest.data.Lifetime;
-import com.softserve.edu.rest.data.User;
+import com.softserve.edu.rest.data.Session;
+import com.softserve.edu.rest.engine.EndpointMetrics;
 import com.softserve.edu.rest.engine.LoginResource;
 import com.softserve.edu.rest.engine.TokenlifetimeResource;
 import com.softserve.edu.rest.entity.RestParameters;
@@ -11,27 +14,40 @@ import io.qameta.allure.Step;
 
 public class AdminService extends UserService {
 
-    public AdminService(User user) {
-        super(user);
+    public AdminService(Session session) {
+        super(session);
     }
 
     public AdminService(LoginResource loginResource,
             TokenlifetimeResource tokenlifetimeResource,
-            User user) {
-        super(loginResource, tokenlifetimeResource, user);
+            Session session) {
+        super(loginResource, tokenlifetimeResource, session);
     }
 
     @Step("UpdateTokenlifetime() STEP")
     public AdminService UpdateTokenlifetime(Lifetime lifetime) {
-        // System.out.println("lifetime = " + lifetime.getTimeAsString() + " User = " +
-        // user);
+        // System.out.println("lifetime = " + lifetime.getTimeAsString() + " Session = " +
+        // session);
         RestParameters bodyParameters = new RestParameters()
-                .addParameter("token", user.getToken())
+                .addParameter("token", session.getToken())
                 .addParameter("time", lifetime.getTimeAsString());
+        List<EndpointMetrics.Snapshot> before = metricsBefore(tokenlifetimeResource);
         SimpleEntity simpleEntity = tokenlifetimeResource
                 .httpPutAsEntity(null, null, bodyParameters);
+        attachMetrics(tokenlifetimeResource, before);
         checkEntity(simpleEntity, "Error Update Tokenlifetime");
         return this;
     }
 
+    @Step("getLoggedUsers() STEP")
+    public String getLoggedUsers() {
+        RestParameters urlParameters = new RestParameters()
+                .addParameter("token", session.getToken());
+        List<EndpointMetrics.Snapshot> before = metricsBefore(loginResource);
+        SimpleEntity simpleEntity = loginResource.httpGetAsEntity(null, urlParameters);
+        attachMetrics(loginResource, before);
+        checkEntity(simpleEntity, "Error Get Logged Users");
+        return simpleEntity.getContent();
+    }
+
 }
@@ -1,29 +1,50 @@
 package com.softserve.edu.rest.service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import com.softserve.edu.rest.data.Lifetime;
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.data.Session;
 import com.softserve.edu.rest.data.User;
+import com.softserve.edu.rest.engine.EndpointMetrics;
 import com.softserve.edu.rest.engine.LoginResource;
+import com.softserve.edu.rest.engine.RestCRUD;
 import com.softserve.edu.rest.engine.TokenlifetimeResource;
 import com.softserve.edu.rest.entity.RestParameters;
 import com.softserve.edu.rest.entity.SimpleEntity;
 
+import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
 
+// Services keep no shared state: the server is fixed when the service is created
+// and a login returns an immutable Session, so flows can run in parallel.
 public class GuestService {
 
+    protected String server;
     protected LoginResource loginResource;
     protected TokenlifetimeResource tokenlifetimeResource;
 
     public GuestService() {
-        loginResource = new LoginResource();
-        tokenlifetimeResource = new TokenlifetimeResource();
+        this(RestUrlRepository.getServer());
+    }
+
+    public GuestService(String server) {
+        this.server = server;
+        loginResource = new LoginResource(server);
+        tokenlifetimeResource = new TokenlifetimeResource(server);
     }
 
     public GuestService(LoginResource loginResource, TokenlifetimeResource tokenlifetimeResource) {
+        server = loginResource.getRestUrl().getUrlServer();
         this.loginResource = loginResource;
         this.tokenlifetimeResource = tokenlifetimeResource;
     }
 
+    public String getServer() {
+        return server;
+    }
+
     protected void checkEntity(SimpleEntity simpleEntity, String message) {
         // if (!simpleEntity.getContent().toLowerCase().equals("true"))
         if ((simpleEntity.getContent() == null)
@@ -34,12 +55,43 @@ public class GuestService {
         }
     }
 
+    private boolean isReported() {
+        return Allure.getLifecycle().getCurrentTestCase().isPresent();
+    }
+
+    // Taken only inside an Allure test case, load runs do not pay for the histogram copies
+    protected List<EndpointMetrics.Snapshot> metricsBefore(RestCRUD resource) {
+        return isReported() ? resource.getMetricsSnapshot() : null;
+    }
+
+    // RestMetrics are process-wide and cumulative, so the current Allure step gets
+    // only what its resource recorded since before (calls of other threads included)
+    protected void attachMetrics(RestCRUD resource, List<EndpointMetrics.Snapshot> before) {
+        if ((before != null) && isReported()) {
+            Allure.addAttachment("REST metrics", "text/plain", resource.getMetricsSummary(before), ".txt");
+        }
+    }
+
     @Step("getCurrentLifetime() STEP")
     public Lifetime getCurrentLifetime() {
+        List<EndpointMetrics.Snapshot> before = metricsBefore(tokenlifetimeResource);
         SimpleEntity simpleEntity = tokenlifetimeResource.httpGetAsEntity(null, null);
+        attachMetrics(tokenlifetimeResource, before);
         return new Lifetime(simpleEntity.getContent());
     }
 
+    // Cancelling the returned future cancels the call
+    public CompletableFuture<Lifetime> getCurrentLifetimeAsync() {
+        CompletableFuture<SimpleEntity> entity = tokenlifetimeResource.httpGetAsEntityAsync(null, null);
+        CompletableFuture<Lifetime> result = entity.thenApply(simpleEntity -> new Lifetime(simpleEntity.getContent()));
+        result.whenComplete((lifetime, throwable) -> {
+            if (result.isCancelled()) {
+                entity.cancel(true);
+            }
+        });
+        return result;
+    }
+
     // TODO
 //    public void UnsuccessfulUserLogin(IUser user)
 //    {
@@ -54,11 +106,21 @@ public class GuestService {
         RestParameters bodyParameters = new RestParameters()
                 .addParameter("name", adminUser.getName())
                 .addParameter("password", adminUser.getPassword());
+        List<EndpointMetrics.Snapshot> before = metricsBefore(loginResource);
         SimpleEntity simpleEntity = loginResource
                 .httpPostAsEntity(null, null, bodyParameters);
+        attachMetrics(loginResource, before);
         checkEntity(simpleEntity, "Error Login");
-        adminUser.setToken(simpleEntity.getContent());
-        return new AdminService(adminUser);
+        return new AdminService(loginResource, tokenlifetimeResource,
+                new Session(adminUser, simpleEntity.getContent(), server));
+    }
+
+    // Reuses the token shared through TokenManager; LogoutUser() leaves it logged in
+    @Step("SharedAdminLogin() STEP")
+    public AdminService SharedAdminLogin(User adminUser) {
+        String token = TokenManager.forServer(server).getToken(adminUser);
+        return new AdminService(loginResource, tokenlifetimeResource,
+                new Session(adminUser, token, server, true));
     }
 
 }
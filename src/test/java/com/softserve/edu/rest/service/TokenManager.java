@@ -0,0 +1,307 @@
+package com.softserve.edu.rest.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.softserve.edu.rest.data.Lifetime;
+import com.softserve.edu.rest.data.User;
+import com.softserve.edu.rest.engine.HttpClientRegistry;
+import com.softserve.edu.rest.engine.LoginResource;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.entity.RestParameters;
+import com.softserve.edu.rest.entity.SimpleEntity;
+
+// One login per user name and password, shared by all threads.
+// Concurrent callers wait for the same login; a token that was used since the
+// last login is renewed in the background before the server lifetime runs out.
+public class TokenManager {
+
+    public static final double DEFAULT_REFRESH_RATIO = 0.8;
+    private static final String KEY_SEPARATOR = "/";
+
+    private static volatile TokenManager defaultManager;
+    private static final Map<String, TokenManager> serverManagers = new ConcurrentHashMap<>();
+    // One timer thread for the refreshes of all managers
+    private static final ScheduledThreadPoolExecutor scheduler = createScheduler();
+
+    private static final class Token {
+        private final String value;
+        private final long issuedMillis;
+        private final long expiresMillis;
+        private volatile long lastAccessMillis;
+
+        private Token(String value, long issuedMillis, long lifetimeMillis) {
+            this.value = value;
+            this.issuedMillis = issuedMillis;
+            expiresMillis = issuedMillis + lifetimeMillis;
+            lastAccessMillis = 0;
+        }
+
+        private boolean isValid() {
+            return System.currentTimeMillis() < expiresMillis;
+        }
+    }
+
+    private final LoginResource loginResource;
+    private final TokenlifetimeResource tokenlifetimeResource;
+    private final double refreshRatio;
+    private final Map<String, CompletableFuture<Token>> tokens;
+    private final Map<String, ScheduledFuture<?>> refreshTimers;
+    private volatile boolean closed;
+    private final AtomicLong logins;
+    private final AtomicLong refreshes;
+    private final AtomicLong sharedHits;
+
+    public TokenManager(LoginResource loginResource, TokenlifetimeResource tokenlifetimeResource,
+            double refreshRatio) {
+        this.loginResource = loginResource;
+        this.tokenlifetimeResource = tokenlifetimeResource;
+        this.refreshRatio = refreshRatio;
+        tokens = new ConcurrentHashMap<>();
+        refreshTimers = new ConcurrentHashMap<>();
+        logins = new AtomicLong();
+        refreshes = new AtomicLong();
+        sharedHits = new AtomicLong();
+    }
+
+    public TokenManager(LoginResource loginResource, TokenlifetimeResource tokenlifetimeResource) {
+        this(loginResource, tokenlifetimeResource, DEFAULT_REFRESH_RATIO);
+    }
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    public static TokenManager getDefault() {
+        if (defaultManager == null) {
+            synchronized (TokenManager.class) {
+                if (defaultManager == null) {
+                    defaultManager = new TokenManager(new LoginResource(), new TokenlifetimeResource());
+                }
+            }
+        }
+        return defaultManager;
+    }
+
+    public static void setDefault(TokenManager tokenManager) {
+        synchronized (TokenManager.class) {
+            if (defaultManager != null) {
+                defaultManager.shutdown();
+            }
+            defaultManager = tokenManager;
+        }
+    }
+
+    // The default manager when it talks to this server, else one per server
+    public static TokenManager forServer(String server) {
+        TokenManager tokenManager = getDefault();
+        if (tokenManager.isBoundTo(server)) {
+            return tokenManager;
+        }
+        return serverManagers.computeIfAbsent(HttpClientRegistry.serverKey(server),
+                serverKey -> new TokenManager(new LoginResource(serverKey), new TokenlifetimeResource(serverKey)));
+    }
+
+    // Drops the tokens of one server, e.g. of a local server that was stopped
+    public static void remove(String server) {
+        TokenManager tokenManager = serverManagers.remove(HttpClientRegistry.serverKey(server));
+        if (tokenManager != null) {
+            tokenManager.shutdown();
+        }
+    }
+
+    // Shuts down the default manager and all managers of forServer()
+    public static void reset() {
+        for (String serverKey : serverManagers.keySet()) {
+            remove(serverKey);
+        }
+        setDefault(null);
+    }
+
+    // Like forServer(server).invalidate(), but does not create a manager for it
+    public static void invalidate(String server, String name, String tokenValue) {
+        TokenManager tokenManager = defaultManager;
+        if ((tokenManager != null) && tokenManager.isBoundTo(server)) {
+            tokenManager.invalidate(name, tokenValue);
+        }
+        tokenManager = serverManagers.get(HttpClientRegistry.serverKey(server));
+        if (tokenManager != null) {
+            tokenManager.invalidate(name, tokenValue);
+        }
+    }
+
+    public boolean isBoundTo(String server) {
+        return HttpClientRegistry.serverKey(loginResource.getRestUrl().getUrlServer())
+                .equals(HttpClientRegistry.serverKey(server));
+    }
+
+    // The password is part of the key, a wrong password does not get the cached token
+    private static String tokenKey(User user) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(String.valueOf(user.getPassword()).getBytes(StandardCharsets.UTF_8));
+            StringBuilder result = new StringBuilder(user.getName()).append(KEY_SEPARATOR);
+            for (byte b : hash) {
+                result.append(Character.forDigit((b >> 4) & 0x0F, 16)).append(Character.forDigit(b & 0x0F, 16));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public String getToken(User user) {
+        String key = tokenKey(user);
+        while (true) {
+            CompletableFuture<Token> current = tokens.get(key);
+            if (current == null || isExpired(current)) {
+                CompletableFuture<Token> created = new CompletableFuture<>();
+                boolean owner = (current == null)
+                        ? (tokens.putIfAbsent(key, created) == null)
+                        : tokens.replace(key, current, created);
+                if (!owner) {
+                    continue;
+                }
+                login(user, key, created);
+                current = created;
+            } else {
+                sharedHits.incrementAndGet();
+            }
+            try {
+                Token token = current.join();
+                token.lastAccessMillis = System.currentTimeMillis();
+                return token.value;
+            } catch (CompletionException e) {
+                // A failed login is not cached, the next caller tries again
+                tokens.remove(key, current);
+                throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause() : e;
+            }
+        }
+    }
+
+    private boolean isExpired(CompletableFuture<Token> future) {
+        if (!future.isDone()) {
+            return false;
+        }
+        return future.isCompletedExceptionally() || (!future.join().isValid());
+    }
+
+    private void login(User user, String key, CompletableFuture<Token> target) {
+        try {
+            target.complete(requestToken(user));
+            logins.incrementAndGet();
+            scheduleRefresh(user, key, target);
+        } catch (RuntimeException e) {
+            target.completeExceptionally(e);
+        }
+    }
+
+    private Token requestToken(User user) {
+        RestParameters bodyParameters = new RestParameters()
+                .addParameter("name", user.getName())
+                .addParameter("password", user.getPassword());
+        long issuedMillis = System.currentTimeMillis();
+        SimpleEntity simpleEntity = loginResource.httpPostAsEntity(null, null, bodyParameters);
+        if ((simpleEntity.getContent() == null)
+                || (simpleEntity.getContent().isEmpty())
+                || (simpleEntity.getContent().toLowerCase().equals("false"))) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Error Login");
+        }
+        Lifetime lifetime = new Lifetime(tokenlifetimeResource.httpGetAsEntity(null, null).getContent());
+        return new Token(simpleEntity.getContent(), issuedMillis, lifetime.getTimeAsLong());
+    }
+
+    private void scheduleRefresh(User user, String key, CompletableFuture<Token> current) {
+        if (closed) {
+            return;
+        }
+        Token token = current.join();
+        long delayMillis = (long) ((token.expiresMillis - token.issuedMillis) * refreshRatio);
+        ScheduledFuture<?> previous = refreshTimers.put(key,
+                scheduler.schedule(() -> refresh(user, key, current), delayMillis, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    // The old token stays in use until the new one is ready.
+    // A token nobody asked for since its login is left to expire.
+    private void refresh(User user, String key, CompletableFuture<Token> current) {
+        Token token = current.join();
+        if (closed || (tokens.get(key) != current) || (token.lastAccessMillis == 0)) {
+            return;
+        }
+        try {
+            CompletableFuture<Token> refreshed = CompletableFuture.completedFuture(requestToken(user));
+            if (tokens.replace(key, current, refreshed)) {
+                refreshes.incrementAndGet();
+                scheduleRefresh(user, key, refreshed);
+            }
+        } catch (RuntimeException e) {
+            // TODO User Logger
+            System.out.println("Token refresh for " + user.getName() + " failed: " + e.toString());
+        }
+    }
+
+    // Drops the cached token, e.g. after it was logged out
+    public void invalidate(String name, String tokenValue) {
+        for (Map.Entry<String, CompletableFuture<Token>> entry : tokens.entrySet()) {
+            CompletableFuture<Token> current = entry.getValue();
+            if (entry.getKey().startsWith(name + KEY_SEPARATOR) && current.isDone()
+                    && (!current.isCompletedExceptionally()) && current.join().value.equals(tokenValue)) {
+                tokens.remove(entry.getKey(), current);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        tokens.clear();
+    }
+
+    // The shared timer thread keeps running for the other managers
+    public void shutdown() {
+        closed = true;
+        for (ScheduledFuture<?> refreshTimer : refreshTimers.values()) {
+            refreshTimer.cancel(false);
+        }
+        refreshTimers.clear();
+        tokens.clear();
+    }
+
+    // getters
+
+    public long getLogins() {
+        return logins.get();
+    }
+
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    public long getSharedHits() {
+        return sharedHits.get();
+    }
+
+    @Override
+    public String toString() {
+        return "TokenManager [users=" + tokens.size() + ", logins=" + getLogins()
+                + ", refreshes=" + getRefreshes() + ", sharedHits=" + getSharedHits() + "]";
+    }
+
+}
@@ -1,6 +1,9 @@
 package com.softserve.edu.rest.service;
 
-import com.softserve.edu.rest.data.User;
+import java.util.List;
+
+import com.softserve.edu.rest.data.Session;
+import com.softserve.edu.rest.engine.EndpointMetrics;
 import com.softserve.edu.rest.engine.LoginResource;
 import com.softserve.edu.rest.engine.LogoutResource;
 import com.softserve.edu.rest.engine.TokenlifetimeResource;
@@ -12,33 +15,44 @@ import io.qameta.allure.Step;
 public class UserService extends GuestService {
 
     protected LogoutResource logoutResource;
-    protected User user;
+    protected Session session;
 
-    public UserService(User user) {
-        // super(); // by default
-        logoutResource = new LogoutResource();
-        this.user = user;
+    public UserService(Session session) {
+        super(session.getServer());
+        logoutResource = new LogoutResource(session.getServer());
+        this.session = session;
     }
 
     public UserService(LoginResource loginResource,
             TokenlifetimeResource tokenlifetimeResource,
-            User user) {
+            Session session) {
         super(loginResource, tokenlifetimeResource);
-        this.user = user;
+        logoutResource = new LogoutResource(session.getServer());
+        this.session = session;
+    }
+
+    public Session getSession() {
+        return session;
     }
 
+    // A shared token is only released here, the other flows still use it
     @Step("LogoutUser() STEP")
     public GuestService LogoutUser() {
+        if (session.isShared()) {
+            return new GuestService(loginResource, tokenlifetimeResource);
+        }
         RestParameters bodyParameters = new RestParameters()
-                .addParameter("name", user.getName())
-                .addParameter("token", user.getToken());
+                .addParameter("name", session.getName())
+                .addParameter("token", session.getToken());
         // SimpleEntity simpleEntity = loginResource
         //.httpDeleteAsEntity(null, null, bodyParameters);
+        List<EndpointMetrics.Snapshot> before = metricsBefore(logoutResource);
         SimpleEntity simpleEntity = logoutResource
                 .httpPostAsEntity(null, null, bodyParameters);
+        attachMetrics(logoutResource, before);
         checkEntity(simpleEntity, "Error Logout");
-        user.setToken("");
-        return new GuestService();
+        TokenManager.invalidate(server, session.getName(), session.getToken());
+        return new GuestService(loginResource, tokenlifetimeResource);
     }
 
 }
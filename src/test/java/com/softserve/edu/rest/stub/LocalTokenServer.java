@@ -0,0 +1,557 @@
+package com.softserve.edu.rest.stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.google.gson.Gson;
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.engine.RestExecutors;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// In-process stand-in for the token service: login/, logout/, login/users and tokenlifetime/.
+// Every answer is {"content": "..."} with HTTP 200, errors are reported as "false".
+// Latency and failed answers can be injected; with the same seed they repeat run to run.
+// A request limit per second answers the surplus with 429 and Retry-After.
+// POST upload/ reads any body as a stream and answers "length:sha1" of the raw bytes.
+// Answers above a size threshold are compressed when the client accepts it.
+// Collections added by addCollection() are served as plain json arrays, GitHub style:
+// ?page=1&per_page=30 with a "Link: <...>; rel=\"next\"" header while more pages follow.
+public class LocalTokenServer {
+
+    private static final String TOKEN_CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int TOKEN_LENGTH = 32;
+    // Thousands of clients may connect at once
+    private static final int BACKLOG = 4096;
+    private static final String FALSE = "false";
+    private static final String TRUE = "true";
+
+    private static final class Account {
+        private final String password;
+        private final boolean admin;
+
+        private Account(String password, boolean admin) {
+            this.password = password;
+            this.admin = admin;
+        }
+    }
+
+    private static final class Session {
+        private final String name;
+        private final long createdMillis;
+
+        private Session(String name, long createdMillis) {
+            this.name = name;
+            this.createdMillis = createdMillis;
+        }
+    }
+
+    private final Map<String, Account> accounts;
+    private final Map<String, Session> sessions;
+    private final Map<String, List<?>> collections;
+    private final SecureRandom random;
+    private final Gson gson;
+    private volatile long tokenLifetime;
+    private volatile long compressionMinBytes;
+    private HttpServer httpServer;
+    private ExecutorService executor;
+    private String previousServer;
+    // Fault injection
+    private final Random faults;
+    private volatile long minLatencyMillis;
+    private volatile long maxLatencyMillis;
+    private volatile double errorRate;
+    private volatile int errorStatus;
+    private final AtomicLong injectedErrors;
+    private volatile int requestLimit;
+    private long windowStartMillis;
+    private int windowRequests;
+    private final AtomicLong rejectedRequests;
+    private final AtomicLong receivedRequests;
+    private final AtomicInteger activeRequests;
+    private final AtomicInteger peakActiveRequests;
+
+    public LocalTokenServer() {
+        accounts = new ConcurrentHashMap<>();
+        sessions = new ConcurrentHashMap<>();
+        collections = new ConcurrentHashMap<>();
+        random = new SecureRandom();
+        gson = new Gson();
+        tokenLifetime = Long.parseLong(LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        faults = new Random(0);
+        errorStatus = 500;
+        compressionMinBytes = 1024;
+        injectedErrors = new AtomicLong();
+        rejectedRequests = new AtomicLong();
+        receivedRequests = new AtomicLong();
+        activeRequests = new AtomicInteger();
+        peakActiveRequests = new AtomicInteger();
+        addUser("admin", "qwerty", true);
+    }
+
+    public LocalTokenServer addUser(String name, String password, boolean admin) {
+        accounts.put(name, new Account(password, admin));
+        return this;
+    }
+
+    public LocalTokenServer addCollection(String path, List<?> elements) {
+        collections.put(normalizePath(path), Collections.unmodifiableList(elements));
+        return this;
+    }
+
+    // Port 0 binds an ephemeral port
+    public LocalTokenServer start(int port) {
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress("localhost", port), BACKLOG);
+        } catch (IOException e) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Local server can not start " + e.toString());
+        }
+        executor = RestExecutors.newPerRequestExecutor("local-token-server");
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/", this::handle);
+        httpServer.start();
+        return this;
+    }
+
+    public LocalTokenServer start() {
+        return start(0);
+    }
+
+    // Points RestUrlRepository at this server; stop() puts the previous server back
+    public LocalTokenServer bind() {
+        if (previousServer == null) {
+            previousServer = RestUrlRepository.getServer();
+        }
+        RestUrlRepository.setServer(getUrl());
+        return this;
+    }
+
+    public void stop() {
+        if (previousServer != null) {
+            RestUrlRepository.setServer(previousServer);
+            previousServer = null;
+        }
+        if (httpServer != null) {
+            httpServer.stop(0);
+            executor.shutdownNow();
+            httpServer = null;
+        }
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    // Same shape as RestUrlRepository server, with trailing slash
+    public String getUrl() {
+        return "http://localhost:" + getPort() + "/";
+    }
+
+    public long getTokenLifetime() {
+        return tokenLifetime;
+    }
+
+    public LocalTokenServer setTokenLifetime(long tokenLifetime) {
+        this.tokenLifetime = tokenLifetime;
+        return this;
+    }
+
+    public int getLoggedUsersCount() {
+        return sessions.size();
+    }
+
+    // Every answer waits a random time in [minLatencyMillis, maxLatencyMillis]
+    public LocalTokenServer setLatency(long minLatencyMillis, long maxLatencyMillis) {
+        this.minLatencyMillis = minLatencyMillis;
+        this.maxLatencyMillis = Math.max(minLatencyMillis, maxLatencyMillis);
+        return this;
+    }
+
+    // Share of answers replaced by errorStatus with content "false"
+    public LocalTokenServer setErrorRate(double errorRate, int errorStatus) {
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    public LocalTokenServer setSeed(long seed) {
+        synchronized (faults) {
+            faults.setSeed(seed);
+        }
+        return this;
+    }
+
+    // Answers of at least this size are gzip or deflate coded if the client accepts it;
+    // negative switches it off
+    public LocalTokenServer setCompressionMinBytes(long compressionMinBytes) {
+        this.compressionMinBytes = compressionMinBytes;
+        return this;
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    // Requests accepted per one second window; 0 means no limit
+    public LocalTokenServer setRequestLimit(int requestLimit) {
+        this.requestLimit = requestLimit;
+        return this;
+    }
+
+    public long getRejectedRequests() {
+        return rejectedRequests.get();
+    }
+
+    // Counted when the latency of the request is chosen, before the answer
+    public long getReceivedRequests() {
+        return receivedRequests.get();
+    }
+
+    // Most requests waiting out their latency at the same time since start; the wait
+    // ends before the answer goes out, so a client can not overlap it with its next request
+    public int getPeakActiveRequests() {
+        return peakActiveRequests.get();
+    }
+
+    // Seconds until the window opens again, 0 when this request is accepted
+    private synchronized long takeRequest() {
+        if (requestLimit <= 0) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        if (now - windowStartMillis >= 1000) {
+            windowStartMillis = now;
+            windowRequests = 0;
+        }
+        if (windowRequests < requestLimit) {
+            windowRequests++;
+            return 0;
+        }
+        return (windowStartMillis + 1000 - now + 999) / 1000;
+    }
+
+    // Handler - - - - - - - - - - - - - - - - - - - -
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            long latencyMillis;
+            boolean isError;
+            synchronized (faults) {
+                latencyMillis = minLatencyMillis
+                        + (long) (faults.nextDouble() * (maxLatencyMillis - minLatencyMillis));
+                isError = faults.nextDouble() < errorRate;
+            }
+            receivedRequests.incrementAndGet();
+            if (latencyMillis > 0) {
+                peakActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    activeRequests.decrementAndGet();
+                }
+            }
+            long retryAfter = takeRequest();
+            if (retryAfter > 0) {
+                rejectedRequests.incrementAndGet();
+                readBody(exchange);
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfter));
+                send(exchange, 429, FALSE);
+                return;
+            }
+            if (isError) {
+                injectedErrors.incrementAndGet();
+                readBody(exchange);
+                send(exchange, errorStatus, FALSE);
+                return;
+            }
+            String path = normalizePath(requestPath(exchange));
+            if (collections.containsKey(path) && exchange.getRequestMethod().equals("GET")) {
+                sendPage(exchange, path, collections.get(path), parseForm(exchange.getRequestURI().getRawQuery()));
+                return;
+            }
+            if (path.equals("upload") && exchange.getRequestMethod().equals("POST")) {
+                send(exchange, 200, digestBody(exchange));
+                return;
+            }
+            String content = route(exchange.getRequestMethod(), path,
+                    parseForm(exchange.getRequestURI().getRawQuery()), parseForm(readBody(exchange)));
+            if (content == null) {
+                send(exchange, 404, "");
+            } else {
+                send(exchange, 200, content);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String route(String method, String path, Map<String, String> query, Map<String, String> form) {
+        if (path.equals("login") && method.equals("POST")) {
+            return login(form.get("name"), form.get("password"));
+        }
+        if ((path.equals("logout") && (method.equals("POST") || method.equals("DELETE")))) {
+            return logout(form.get("name"), form.get("token"));
+        }
+        if (path.equals("login/users") && method.equals("GET")) {
+            return loggedUsers(query.get("token"));
+        }
+        if (path.equals("tokenlifetime") && method.equals("GET")) {
+            return String.valueOf(tokenLifetime);
+        }
+        if (path.equals("tokenlifetime") && method.equals("PUT")) {
+            return updateTokenLifetime(form.get("token"), form.get("time"));
+        }
+        return null;
+    }
+
+    private String login(String name, String password) {
+        Account account = (name == null) ? null : accounts.get(name);
+        if ((account == null) || (!account.password.equals(password))) {
+            return FALSE;
+        }
+        String token = newToken();
+        sessions.put(token, new Session(name, System.currentTimeMillis()));
+        return token;
+    }
+
+    private String logout(String name, String token) {
+        Session session = validSession(token);
+        if ((session == null) || (!session.name.equals(name))) {
+            return FALSE;
+        }
+        sessions.remove(token);
+        return TRUE;
+    }
+
+    // Admin only; names of users with a valid token, sorted, comma separated
+    private String loggedUsers(String token) {
+        Session session = validSession(token);
+        if ((session == null) || (!accounts.get(session.name).admin)) {
+            return FALSE;
+        }
+        TreeSet<String> names = new TreeSet<>();
+        for (String current : sessions.keySet()) {
+            Session loggedSession = validSession(current);
+            if (loggedSession != null) {
+                names.add(loggedSession.name);
+            }
+        }
+        return String.join(",", names);
+    }
+
+    private String updateTokenLifetime(String token, String time) {
+        Session session = validSession(token);
+        if ((session == null) || (!accounts.get(session.name).admin)) {
+            return FALSE;
+        }
+        try {
+            tokenLifetime = Long.parseLong(time);
+        } catch (NumberFormatException e) {
+            return FALSE;
+        }
+        return TRUE;
+    }
+
+    private Session validSession(String token) {
+        Session session = (token == null) ? null : sessions.get(token);
+        if ((session != null) && (System.currentTimeMillis() - session.createdMillis > tokenLifetime)) {
+            sessions.remove(token);
+            session = null;
+        }
+        return session;
+    }
+
+    private String newToken() {
+        char[] token = new char[TOKEN_LENGTH];
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            token[i] = TOKEN_CHARACTERS.charAt(random.nextInt(TOKEN_CHARACTERS.length()));
+        }
+        return new String(token);
+    }
+
+    // Http helpers - - - - - - - - - - - - - - - - - - - -
+
+    // A request target "//login/users" parses as authority "login" and path "/users",
+    // so the path is cut from the raw target instead
+    private String requestPath(HttpExchange exchange) {
+        String target = exchange.getRequestURI().toString();
+        int query = target.indexOf('?');
+        return decode((query < 0) ? target : target.substring(0, query));
+    }
+
+    // "//login/users/" and "login/users" are the same resource
+    private String normalizePath(String path) {
+        StringBuilder result = new StringBuilder();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                result.append(result.length() == 0 ? "" : "/").append(segment);
+            }
+        }
+        return result.toString();
+    }
+
+    private String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        InputStream requestBody = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(contentEncoding)) {
+            requestBody = new GZIPInputStream(requestBody);
+        } else if ("deflate".equalsIgnoreCase(contentEncoding)) {
+            requestBody = new InflaterInputStream(requestBody);
+        }
+        try (InputStream in = requestBody) {
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                body.write(buffer, 0, count);
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String digestBody(HttpExchange exchange) throws IOException {
+        MessageDigest sha1;
+        try {
+            sha1 = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        long length = 0;
+        try (InputStream in = exchange.getRequestBody()) {
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                sha1.update(buffer, 0, count);
+                length += count;
+            }
+        }
+        StringBuilder result = new StringBuilder().append(length).append(':');
+        for (byte b : sha1.digest()) {
+            result.append(Character.forDigit((b >> 4) & 0x0F, 16)).append(Character.forDigit(b & 0x0F, 16));
+        }
+        return result.toString();
+    }
+
+    private Map<String, String> parseForm(String encoded) {
+        Map<String, String> result = new HashMap<>();
+        if ((encoded == null) || (encoded.isEmpty())) {
+            return result;
+        }
+        for (String pair : encoded.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = (separator < 0) ? pair : pair.substring(0, separator);
+            String value = (separator < 0) ? "" : pair.substring(separator + 1);
+            result.put(decode(key), decode(value));
+        }
+        return result;
+    }
+
+    private String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private byte[] compress(HttpExchange exchange, byte[] body) throws IOException {
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if ((acceptEncoding == null) || (compressionMinBytes < 0) || (body.length < compressionMinBytes)) {
+            return body;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+        if (acceptEncoding.contains("gzip")) {
+            try (OutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(body);
+            }
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        } else if (acceptEncoding.contains("deflate")) {
+            try (OutputStream out = new DeflaterOutputStream(compressed)) {
+                out.write(body);
+            }
+            exchange.getResponseHeaders().set("Content-Encoding", "deflate");
+        } else {
+            return body;
+        }
+        return compressed.toByteArray();
+    }
+
+    private void sendPage(HttpExchange exchange, String path, List<?> elements, Map<String, String> query)
+            throws IOException {
+        int page;
+        int perPage;
+        try {
+            page = Math.max(1, Integer.parseInt(query.getOrDefault("page", "1")));
+            perPage = Math.max(1, Integer.parseInt(query.getOrDefault("per_page", "30")));
+        } catch (NumberFormatException e) {
+            send(exchange, 400, FALSE);
+            return;
+        }
+        int from = (int) Math.min((long) (page - 1) * perPage, elements.size());
+        int to = Math.min(from + perPage, elements.size());
+        if (to < elements.size()) {
+            exchange.getResponseHeaders().set("Link", "<" + getUrl() + path + "?page=" + (page + 1)
+                    + "&per_page=" + perPage + ">; rel=\"next\"");
+        }
+        byte[] body = compress(exchange, gson.toJson(elements.subList(from, to)).getBytes(StandardCharsets.UTF_8));
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // GET answers carry an ETag, so clients can revalidate with If-None-Match
+    private void send(HttpExchange exchange, int status, String content) throws IOException {
+        Map<String, String> entity = new HashMap<>();
+        entity.put("content", content);
+        byte[] body = gson.toJson(entity).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+        if (exchange.getRequestMethod().equals("GET") && (status == 200)) {
+            String etag = "\"" + Integer.toHexString(content.hashCode()) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        body = compress(exchange, body);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.softserve.edu.rest.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.engine.HttpClientRegistry;
+import com.softserve.edu.rest.engine.LoginResource;
+import com.softserve.edu.rest.engine.LogoutResource;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.entity.RestParameters;
+import com.softserve.edu.rest.service.GuestService;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Response;
+
+public class AsyncVerbsTest {
+
+    // OkHttp names a dispatcher thread "OkHttp <url>" while it runs a call
+    private static final String DISPATCHER_THREAD = "OkHttp";
+    private static final long LATENCY_MILLIS = 300;
+
+    private LocalTokenServer server;
+    private String previousServer;
+    private GuestService guestService;
+    private TokenlifetimeResource tokenlifetimeResource;
+    private LoginResource loginResource;
+    private LogoutResource logoutResource;
+    private RestParameters credentials;
+    private RestParameters lifetimeUpdate;
+
+    // Answers come later than the dependent stages are attached
+    @BeforeClass
+    public void startServer() {
+        server = new LocalTokenServer().start().setLatency(LATENCY_MILLIS, LATENCY_MILLIS);
+        previousServer = RestUrlRepository.getServer();
+        RestUrlRepository.setServer(server.getUrl());
+        guestService = new GuestService();
+        tokenlifetimeResource = new TokenlifetimeResource();
+        loginResource = new LoginResource();
+        logoutResource = new LogoutResource();
+        credentials = new RestParameters()
+                .addParameter("name", "admin")
+                .addParameter("password", "qwerty");
+        lifetimeUpdate = new RestParameters()
+                .addParameter("token", "unknown")
+                .addParameter("time", "1000");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        RestUrlRepository.setServer(previousServer);
+        server.stop();
+    }
+
+    private CompletableFuture<String> completingThread(CompletableFuture<?> future) {
+        return future.thenApply(value -> {
+            if (value instanceof Response) {
+                ((Response) value).close();
+            }
+            return Thread.currentThread().getName();
+        });
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while ((!condition.getAsBoolean()) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void checkCompletionOffDispatcher() {
+        List<CompletableFuture<String>> threads = new ArrayList<>();
+        //
+        CompletableFuture<String> lifetime = guestService.getCurrentLifetimeAsync()
+                .thenApply(currentLifetime -> currentLifetime.getTimeAsString());
+        threads.add(completingThread(lifetime));
+        threads.add(completingThread(tokenlifetimeResource.httpGetAsTextAsync(null, null)));
+        threads.add(completingThread(tokenlifetimeResource.httpGetAsResponseAsync(null, null)));
+        threads.add(completingThread(loginResource.httpPostAsTextAsync(null, null, credentials)));
+        threads.add(completingThread(loginResource.httpPostAsResponseAsync(null, null, credentials)));
+        threads.add(completingThread(tokenlifetimeResource.httpPutAsTextAsync(null, null, lifetimeUpdate)));
+        threads.add(completingThread(tokenlifetimeResource.httpPutAsResponseAsync(null, null, lifetimeUpdate)));
+        threads.add(completingThread(logoutResource.httpDeleteAsTextAsync(null, null, credentials)));
+        threads.add(completingThread(logoutResource.httpDeleteAsResponseAsync(null, null, credentials)));
+        for (CompletableFuture<String> thread : threads) {
+            Assert.assertFalse(thread.join().startsWith(DISPATCHER_THREAD), thread.join());
+        }
+        Assert.assertEquals(lifetime.join(), LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+    }
+
+    // Calls of this test's server on the shared dispatcher
+    private List<Call> runningCalls() {
+        List<Call> result = new ArrayList<>();
+        for (Call call : HttpClientRegistry.getClient(server.getUrl()).dispatcher().runningCalls()) {
+            if (call.request().url().port() == server.getPort()) {
+                result.add(call);
+            }
+        }
+        return result;
+    }
+
+    private void assertCancelsCall(String name, Supplier<CompletableFuture<?>> verb)
+            throws InterruptedException {
+        long receivedBefore = server.getReceivedRequests();
+        //
+        CompletableFuture<?> future = verb.get();
+        waitFor(() -> server.getReceivedRequests() > receivedBefore);
+        List<Call> calls = runningCalls();
+        Assert.assertEquals(calls.size(), 1, name);
+        Assert.assertTrue(future.cancel(true));
+        Assert.assertTrue(calls.get(0).isCanceled(), name);
+        waitFor(() -> runningCalls().isEmpty());
+        Assert.assertTrue(runningCalls().isEmpty(), name);
+    }
+
+    // The request is on the server when the future is cancelled; the call ends as cancelled
+    @Test
+    public void checkCancellationCancelsCall() throws InterruptedException {
+        assertCancelsCall("getCurrentLifetimeAsync", () -> guestService.getCurrentLifetimeAsync());
+        assertCancelsCall("httpGetAsTextAsync", () -> tokenlifetimeResource.httpGetAsTextAsync(null, null));
+        assertCancelsCall("httpGetAsResponseAsync", () -> tokenlifetimeResource.httpGetAsResponseAsync(null, null));
+        assertCancelsCall("httpPostAsTextAsync", () -> loginResource.httpPostAsTextAsync(null, null, credentials));
+        assertCancelsCall("httpPostAsResponseAsync",
+                () -> loginResource.httpPostAsResponseAsync(null, null, credentials));
+        assertCancelsCall("httpPutAsTextAsync",
+                () -> tokenlifetimeResource.httpPutAsTextAsync(null, null, lifetimeUpdate));
+        assertCancelsCall("httpPutAsResponseAsync",
+                () -> tokenlifetimeResource.httpPutAsResponseAsync(null, null, lifetimeUpdate));
+        assertCancelsCall("httpDeleteAsTextAsync",
+                () -> logoutResource.httpDeleteAsTextAsync(null, null, credentials));
+        assertCancelsCall("httpDeleteAsResponseAsync",
+                () -> logoutResource.httpDeleteAsResponseAsync(null, null, credentials));
+        //
+        ConnectionPool connectionPool = HttpClientRegistry.getClient(server.getUrl()).connectionPool();
+        waitFor(() -> connectionPool.connectionCount() == connectionPool.idleConnectionCount());
+        Assert.assertEquals(connectionPool.connectionCount(), connectionPool.idleConnectionCount());
+    }
+
+    private void assertNotSupported(String httpMethod, Assert.ThrowingRunnable verb) {
+        RuntimeException e = Assert.expectThrows(RuntimeException.class, verb);
+        Assert.assertTrue(e.getMessage().startsWith("Method " + httpMethod + " not Support"), e.getMessage());
+    }
+
+    // Without the server only the uri is left, "" marks the verbs a resource does not have
+    @Test
+    public void checkNotSupportedVerbIsNamed() {
+        LogoutResource logout = new LogoutResource(server.getUrl());
+        logout.getRestUrl().addUrlServer("");
+        assertNotSupported("GET", () -> logout.httpGetAsText(null, null));
+        assertNotSupported("GET", () -> logout.httpGetAsTextAsync(null, null));
+        assertNotSupported("PUT", () -> logout.httpPutAsResponseAsync(null, null, credentials));
+        TokenlifetimeResource tokenlifetime = new TokenlifetimeResource(server.getUrl());
+        tokenlifetime.getRestUrl().addUrlServer("");
+        assertNotSupported("POST", () -> tokenlifetime.httpPostAsText(null, null, credentials));
+        assertNotSupported("POST", () -> tokenlifetime.httpPostMultipartAsResponse(null, null, null));
+        assertNotSupported("DELETE", () -> tokenlifetime.httpDeleteAsTextAsync(null, null, credentials));
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.softserve.edu.rest.test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.Lifetime;
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.UserRepository;
+import com.softserve.edu.rest.engine.Cassette;
+import com.softserve.edu.rest.engine.LoginResource;
+import com.softserve.edu.rest.entity.RestParameters;
+import com.softserve.edu.rest.entity.SimpleEntity;
+import com.softserve.edu.rest.service.AdminService;
+import com.softserve.edu.rest.service.GuestService;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+public class CassetteTest {
+
+    private Path cassettePath;
+    private long recordedCount;
+
+    // Recorded once against the local server, replayed with no server at all
+    @BeforeClass
+    public void recordCassette() throws Exception {
+        cassettePath = Files.createTempDirectory("cassettes").resolve("lifetime");
+        LocalTokenServer server = new LocalTokenServer().start().bind();
+        Cassette recorder = Cassette.record(cassettePath);
+        Cassette.setDefault(recorder);
+        try {
+            updateLifetimeScenario();
+        } finally {
+            Cassette.setDefault(null);
+            recorder.close();
+            server.stop();
+        }
+        recordedCount = recorder.getRecorded();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void ejectCassette() {
+        Cassette.setDefault(null);
+    }
+
+    private void updateLifetimeScenario() {
+        GuestService guestService = new GuestService();
+        Assert.assertEquals(guestService.getCurrentLifetime().getTimeAsString(),
+                LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        AdminService adminService = guestService
+                .SuccessfulAdminLogin(UserRepository.getAdmin())
+                .UpdateTokenlifetime(LifetimeRepository.GetLongTime());
+        Assert.assertEquals(adminService.getCurrentLifetime().getTimeAsString(),
+                LifetimeRepository.LONG_TOKEN_LIFETIME);
+        adminService.UpdateTokenlifetime(new Lifetime(LifetimeRepository.DEFAULT_TOKEN_LIFETIME));
+        Assert.assertEquals(adminService.getCurrentLifetime().getTimeAsString(),
+                LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        adminService.LogoutUser();
+    }
+
+    @Test
+    public void checkStrictReplay() {
+        Cassette player = Cassette.replay(cassettePath, Cassette.Matching.STRICT);
+        Cassette.setDefault(player);
+        long startNanos = System.nanoTime();
+        updateLifetimeScenario();
+        System.out.println("Replay of " + player.getReplayed() + " requests took "
+                + (System.nanoTime() - startNanos) / 1000 + " us");
+        Assert.assertEquals(player.getReplayed(), recordedCount);
+        Assert.assertEquals(player.getMissed(), 0);
+    }
+
+    // Without the index the records are read from the data file
+    @Test
+    public void checkStrictReplayWithoutIndex() throws Exception {
+        Path dataOnly = Files.createTempDirectory("cassettes").resolve("lifetime");
+        Files.copy(Paths.get(cassettePath + ".data"), Paths.get(dataOnly + ".data"),
+                StandardCopyOption.REPLACE_EXISTING);
+        Cassette player = Cassette.replay(dataOnly, Cassette.Matching.STRICT);
+        Cassette.setDefault(player);
+        updateLifetimeScenario();
+        Assert.assertEquals(player.getReplayed(), recordedCount);
+        Assert.assertEquals(player.getMissed(), 0);
+    }
+
+    @Test
+    public void checkLenientReplay() {
+        RestParameters reordered = new RestParameters()
+                .addParameter("password", UserRepository.getAdmin().getPassword())
+                .addParameter("name", UserRepository.getAdmin().getName());
+        LoginResource loginResource = new LoginResource();
+        //
+        loginResource.setCassette(Cassette.replay(cassettePath, Cassette.Matching.STRICT));
+        try {
+            loginResource.httpPostAsEntity(null, null, reordered);
+            Assert.fail("Strict matching must not accept reordered parameters");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("No recorded response"));
+        }
+        //
+        loginResource.setCassette(Cassette.replay(cassettePath, Cassette.Matching.LENIENT, "token"));
+        SimpleEntity token = loginResource.httpPostAsEntity(null, null, reordered);
+        Assert.assertEquals(token.getContent().length(), 32);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.softserve.edu.rest.test;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.data.UserRepository;
+import com.softserve.edu.rest.engine.ClientSettings;
+import com.softserve.edu.rest.engine.EndpointMetrics;
+import com.softserve.edu.rest.engine.HttpClientRegistry;
+import com.softserve.edu.rest.engine.LoginResource;
+import com.softserve.edu.rest.engine.RestMetrics;
+import com.softserve.edu.rest.entity.RestParameters;
+import com.softserve.edu.rest.service.AdminService;
+import com.softserve.edu.rest.service.GuestService;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class CompressionTest {
+
+    private static final int USERS_COUNT = 200;
+
+    private LocalTokenServer server;
+    private ClientSettings previousSettings;
+
+    @BeforeClass
+    public void saveSettings() {
+        previousSettings = HttpClientRegistry.getSettings();
+    }
+
+    // Every test has its own server, logged in users and settings do not carry over
+    @BeforeMethod
+    public void startServer() {
+        server = new LocalTokenServer().start().bind();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        HttpClientRegistry.setSettings(previousSettings);
+        HttpClientRegistry.reset();
+        server.stop();
+    }
+
+    @Test
+    public void checkGzipResponse() {
+        LoginResource loginResource = new LoginResource();
+        for (int i = 0; i < USERS_COUNT; i++) {
+            String name = String.format("user%03d", i);
+            server.addUser(name, "qwerty", false);
+            loginResource.httpPostAsEntity(null, null, new RestParameters()
+                    .addParameter("name", name)
+                    .addParameter("password", "qwerty"));
+        }
+        AdminService adminService = new GuestService().SuccessfulAdminLogin(UserRepository.getAdmin());
+        RestMetrics.reset();
+        //
+        String loggedUsers = adminService.getLoggedUsers();
+        Assert.assertEquals(loggedUsers.split(",").length, USERS_COUNT + 1);
+        EndpointMetrics.Snapshot users = RestMetrics.get("GET", RestUrlRepository.getLogin().getUrlGet()).snapshot();
+        Assert.assertEquals(users.getCompressedResponses(), 1);
+        Assert.assertTrue(users.getResponseRawBytes() > loggedUsers.length());
+        Assert.assertTrue(users.getResponseBytes() < users.getResponseRawBytes() / 2);
+        System.out.println(users);
+    }
+
+    @Test
+    public void checkGzipRequest() {
+        HttpClientRegistry.setSettings(new ClientSettings().setRequestCompressionMinBytes(16));
+        HttpClientRegistry.reset();
+        RestMetrics.reset();
+        //
+        AdminService adminService = new GuestService().SuccessfulAdminLogin(UserRepository.getAdmin());
+        EndpointMetrics.Snapshot login = RestMetrics.get("POST", RestUrlRepository.getLogin().getUrlPost()).snapshot();
+        Assert.assertEquals(login.getCompressedRequests(), 1);
+        Assert.assertEquals(login.getRequestRawBytes(), "name=admin&password=qwerty".length());
+        //
+        // Form body of LogoutUser is 56 bytes and goes gzipped as well
+        adminService.LogoutUser();
+        Assert.assertEquals(server.getLoggedUsersCount(), 0);
+    }
+
+    // A coded answer to HEAD has no body: nothing to decode, Content-Length stays
+    @Test
+    public void checkHeadIsNotDecoded() throws Exception {
+        OkHttpClient httpClient = HttpClientRegistry.getClient(server.getUrl()).newBuilder()
+                .addNetworkInterceptor(chain -> chain.proceed(chain.request()).newBuilder()
+                        .header("Content-Encoding", "gzip")
+                        .header("Content-Length", "1234")
+                        .build())
+                .build();
+        Request request = new Request.Builder()
+                .url(RestUrlRepository.getTokenLifetime().getUrlGet())
+                .head()
+                .build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            Assert.assertEquals(response.header("Content-Encoding"), "gzip");
+            Assert.assertEquals(response.header("Content-Length"), "1234");
+            Assert.assertEquals(response.body().string(), "");
+        }
+    }
+
+}
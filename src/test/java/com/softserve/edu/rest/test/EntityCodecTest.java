@@ -0,0 +1,139 @@
+package com.softserve.edu.rest.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.Item;
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.RestUrl;
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.engine.EntityCodec;
+import com.softserve.edu.rest.engine.GsonCodec;
+import com.softserve.edu.rest.engine.JacksonCodec;
+import com.softserve.edu.rest.engine.RestQueries;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.entity.RestParameters;
+import com.softserve.edu.rest.entity.SimpleEntity;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+
+public class EntityCodecTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json;charset=UTF-8");
+    private static final int LARGE_ITEMS_COUNT = 50000;
+
+    private LocalTokenServer server;
+
+    // About 4 MB of json in one answer
+    @BeforeClass
+    public void startServer() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < LARGE_ITEMS_COUNT; i++) {
+            items.add(new Item(i, "Item " + i + " of a large collection, Дані"));
+        }
+        server = new LocalTokenServer().addCollection("large", items).start().bind();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @DataProvider
+    public Object[][] codecs() {
+        return new Object[][] {
+            { GsonCodec.getInstance() },
+            { JacksonCodec.getInstance() },
+        };
+    }
+
+    @Test(dataProvider = "codecs")
+    public void checkSimpleEntity(EntityCodec codec) throws Exception {
+        Type type = new TokenlifetimeResource().getEntityType();
+        Assert.assertEquals(type, SimpleEntity.class);
+        SimpleEntity simpleEntity = codec.decode(
+                ResponseBody.create(JSON, "{\"content\":\"300000\",\"unknown\":1}"), type);
+        Assert.assertEquals(simpleEntity.getContent(), "300000");
+    }
+
+    @Test(dataProvider = "codecs")
+    public void checkEmptyBody(EntityCodec codec) throws Exception {
+        Assert.assertNull(codec.decode(ResponseBody.create(JSON, ""), SimpleEntity.class));
+        Assert.assertNull(codec.decode(ResponseBody.create(JSON, " \n"), SimpleEntity.class));
+    }
+
+    @Test(dataProvider = "codecs")
+    public void checkGenericList(EntityCodec codec) throws Exception {
+        RestQueries<List<Item>> itemsQueries = new RestQueries<List<Item>>(RestUrlRepository.getLogin()) {
+        };
+        Assert.assertEquals(itemsQueries.getEntityType().getTypeName(),
+                "java.util.List<com.softserve.edu.rest.data.Item>");
+        List<Item> items = codec.decode(ResponseBody.create(JSON,
+                "[{\"id\":0,\"description\":\"My data\"},{\"id\":1,\"description\":\"Дані\"}]"),
+                itemsQueries.getEntityType());
+        Assert.assertEquals(items.size(), 2);
+        Assert.assertEquals(items.get(1).getId(), 1);
+        Assert.assertEquals(items.get(1).getDescription(), "Дані");
+    }
+
+    @Test(dataProvider = "codecs")
+    public void checkLargePayload(EntityCodec codec) {
+        RestQueries<List<Item>> largeQueries = new RestQueries<List<Item>>(new RestUrl()
+                .addUrlServer(server.getUrl())
+                .addUriGet("large")
+                .addUriPost("")
+                .addUriPut("")
+                .addUriDelete("")) {
+        };
+        largeQueries.setCodec(codec);
+        //
+        List<Item> items = largeQueries.httpGetAsEntity(null,
+                new RestParameters().addParameter("per_page", String.valueOf(LARGE_ITEMS_COUNT)));
+        Assert.assertEquals(items.size(), LARGE_ITEMS_COUNT);
+        Assert.assertEquals(items.get(LARGE_ITEMS_COUNT - 1).getId(), LARGE_ITEMS_COUNT - 1);
+        Assert.assertEquals(items.get(LARGE_ITEMS_COUNT - 1).getDescription(),
+                "Item " + (LARGE_ITEMS_COUNT - 1) + " of a large collection, Дані");
+    }
+
+    // Only the first bytes are logged, the entity is still decoded from the whole body
+    @Test
+    public void checkPayloadLogLimit() {
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        SimpleEntity simpleEntity;
+        RestQueries.setPayloadLogLimit(10);
+        System.setOut(new PrintStream(log, true));
+        try {
+            simpleEntity = tokenlifetimeResource.httpGetAsEntity(null, null);
+        } finally {
+            System.setOut(out);
+            RestQueries.setPayloadLogLimit(0);
+        }
+        Assert.assertTrue(log.toString().contains("json: {\"content\" type: " + SimpleEntity.class.getName()),
+                log.toString());
+        Assert.assertEquals(simpleEntity.getContent(), LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        //
+        // Off by default
+        log.reset();
+        System.setOut(new PrintStream(log, true));
+        try {
+            tokenlifetimeResource.httpGetAsEntity(null, null);
+        } finally {
+            System.setOut(out);
+        }
+        Assert.assertFalse(log.toString().contains("json: "), log.toString());
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.softserve.edu.rest.test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.data.UserRepository;
+import com.softserve.edu.rest.service.AdminService;
+import com.softserve.edu.rest.service.GuestService;
+import com.softserve.edu.rest.service.TokenManager;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+import com.softserve.edu.rest.tools.FanOutReport;
+import com.softserve.edu.rest.tools.FanOutRunner;
+import com.softserve.edu.rest.tools.StepStatistics;
+
+public class FanOutTest {
+
+    private static final int ITERATIONS = 5;
+    private static final long LATENCY_MILLIS = 100;
+
+    private LocalTokenServer qa;
+    private LocalTokenServer stage;
+    private LocalTokenServer production;
+    private String downServer;
+
+    @BeforeClass
+    public void startServers() {
+        qa = new LocalTokenServer().start().setLatency(LATENCY_MILLIS, LATENCY_MILLIS);
+        stage = new LocalTokenServer().start().setLatency(LATENCY_MILLIS, LATENCY_MILLIS)
+                .setTokenLifetime(Long.parseLong(LifetimeRepository.LONG_TOKEN_LIFETIME));
+        production = new LocalTokenServer().start().setLatency(LATENCY_MILLIS, LATENCY_MILLIS);
+        LocalTokenServer down = new LocalTokenServer().start();
+        downServer = down.getUrl();
+        down.stop();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServers() {
+        for (LocalTokenServer server : new LocalTokenServer[] { qa, stage, production }) {
+            TokenManager.remove(server.getUrl());
+        }
+        qa.stop();
+        stage.stop();
+        production.stop();
+    }
+
+    @Test
+    public void checkEnvironmentsSideBySide() {
+        String sharedServer = RestUrlRepository.getServer();
+        FanOutRunner fanOutRunner = new FanOutRunner()
+                .addEnvironment("qa", qa.getUrl())
+                .addEnvironment("stage", stage.getUrl())
+                .addEnvironment("production", production.getUrl())
+                .addEnvironment("down", downServer)
+                .addCheck("getCurrentLifetime", server -> new GuestService(server).getCurrentLifetime().getTimeAsString())
+                .addCheck("AdminLogin", server -> {
+                    AdminService adminService = new GuestService(server)
+                            .SuccessfulAdminLogin(UserRepository.getAdmin());
+                    adminService.LogoutUser();
+                    return adminService;
+                })
+                .setIterations(ITERATIONS);
+        //
+        long startNanos = System.nanoTime();
+        FanOutReport report = fanOutRunner.run();
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1000000;
+        System.out.println(report);
+        //
+        Assert.assertEquals(report.getDifferences(), Arrays.asList(
+                "getCurrentLifetime: stage", "getCurrentLifetime: down", "AdminLogin: down"));
+        Assert.assertEquals(report.getOutcome("getCurrentLifetime", "qa").getValue(),
+                LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        Assert.assertEquals(report.getOutcome("getCurrentLifetime", "stage").getValue(),
+                LifetimeRepository.LONG_TOKEN_LIFETIME);
+        Assert.assertEquals(report.getOutcome("AdminLogin", "production").getValue(), "AdminService");
+        Assert.assertEquals(report.getOutcome("AdminLogin", "down").getStatistics().getErrors(), ITERATIONS);
+        Assert.assertTrue(report.getOutcome("getCurrentLifetime", "qa").getStatistics()
+                .getPercentileMillis(50) >= LATENCY_MILLIS);
+        //
+        // Environments ran side by side, not one after another
+        double busyMillis = 0;
+        for (String check : report.getChecks()) {
+            for (String environment : report.getEnvironments()) {
+                StepStatistics statistics = report.getOutcome(check, environment).getStatistics();
+                busyMillis += statistics.getCount() * statistics.getHistogram().getMean() / 1000.0;
+            }
+        }
+        Assert.assertTrue(elapsedMillis < 0.6 * busyMillis, "elapsed " + elapsedMillis + " busy " + busyMillis);
+        Assert.assertEquals(RestUrlRepository.getServer(), sharedServer);
+        Assert.assertEquals(qa.getLoggedUsersCount() + stage.getLoggedUsersCount()
+                + production.getLoggedUsersCount(), 0);
+    }
+
+    @Test
+    public void checkPartialErrorsDiffer() {
+        AtomicInteger stageCalls = new AtomicInteger();
+        FanOutRunner fanOutRunner = new FanOutRunner()
+                .addEnvironment("qa", qa.getUrl())
+                .addEnvironment("stage", stage.getUrl())
+                .addCheck("assertion", server -> {
+                    // stage passes the first iteration only
+                    if (server.equals(stage.getUrl()) && (stageCalls.incrementAndGet() > 1)) {
+                        Assert.fail("stage answer is wrong");
+                    }
+                    return "ok";
+                })
+                .setIterations(ITERATIONS);
+        //
+        FanOutReport report = fanOutRunner.run();
+        System.out.println(report);
+        //
+        FanOutReport.Outcome outcome = report.getOutcome("assertion", "stage");
+        Assert.assertEquals(outcome.getValue(), "ok");
+        Assert.assertEquals(outcome.getStatistics().getErrors(), ITERATIONS - 1);
+        Assert.assertTrue(outcome.getError().contains("stage answer is wrong"), outcome.getError());
+        Assert.assertTrue(report.isDifferent(outcome));
+        Assert.assertEquals(report.getDifferences(), Arrays.asList("assertion: stage"));
+    }
+
+}
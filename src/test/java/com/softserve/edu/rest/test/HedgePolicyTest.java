@@ -0,0 +1,151 @@
+package com.softserve.edu.rest.test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.engine.EndpointMetrics;
+import com.softserve.edu.rest.engine.HedgePolicy;
+import com.softserve.edu.rest.engine.HttpClientRegistry;
+import com.softserve.edu.rest.engine.RestMetrics;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class HedgePolicyTest {
+
+    private LocalTokenServer server;
+    private String previousServer;
+
+    // Every call ends in callEnd (body closed) or callFailed (cancelled)
+    private static final class CallCounter extends EventListener {
+        private final AtomicInteger started = new AtomicInteger();
+        private final AtomicInteger ended = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        @Override
+        public void callStart(Call call) {
+            started.incrementAndGet();
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            ended.incrementAndGet();
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            failed.incrementAndGet();
+        }
+    }
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalTokenServer().start();
+        previousServer = RestUrlRepository.getServer();
+        RestUrlRepository.setServer(server.getUrl());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetPolicy() {
+        HedgePolicy.setDefault(null);
+        server.setLatency(0, 0);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        RestUrlRepository.setServer(previousServer);
+        server.stop();
+    }
+
+    @Test
+    public void checkHedgeFiresAfterDelay() throws InterruptedException {
+        // Too few samples for the percentile, so the initial delay of 50 ms is used
+        HedgePolicy hedgePolicy = new HedgePolicy(95, 5, 50, 1000);
+        HedgePolicy.setDefault(hedgePolicy);
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+        RestMetrics.reset();
+        //
+        server.setLatency(0, 0);
+        Assert.assertEquals(tokenlifetimeResource.httpGetAsEntity(null, null).getContent(),
+                LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        Assert.assertEquals(hedgePolicy.getHedges(), 0);
+        //
+        // Both attempts wait 200 ms, the primary was sent 50 ms earlier and wins
+        server.setLatency(200, 200);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(tokenlifetimeResource.httpGetAsEntity(null, null).getContent(),
+                    LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        }
+        Assert.assertEquals(hedgePolicy.getRequests(), 4);
+        Assert.assertEquals(hedgePolicy.getHedges(), 3);
+        Assert.assertEquals(hedgePolicy.getHedgeWins(), 0);
+        //
+        // The cancelled hedges are counted apart from the answered GETs; the last cancel may still run
+        long deadline = System.currentTimeMillis() + 2000;
+        while ((countCalls("GET (hedge)") < 3) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(countCalls("GET"), 4);
+        Assert.assertEquals(countCalls("GET (hedge)"), 3);
+        System.out.println(hedgePolicy);
+    }
+
+    // Answered, failed and cancelled calls of the method
+    private long countCalls(String method) {
+        long result = 0;
+        for (EndpointMetrics.Snapshot snapshot : RestMetrics.snapshot()) {
+            if (snapshot.getMethod().equals(method)) {
+                result += snapshot.getCalls() + snapshot.getFailures() + snapshot.getCancelled();
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void checkFirstAnswerWinsAndLoserIsReleased() throws Exception {
+        CallCounter callCounter = new CallCounter();
+        OkHttpClient httpClient = HttpClientRegistry.getClient(server.getUrl()).newBuilder()
+                .eventListener(callCounter)
+                .build();
+        Request request = new Request.Builder().url(server.getUrl() + "tokenlifetime/").build();
+        httpClient.newCall(request).execute().close();
+        HedgePolicy hedgePolicy = new HedgePolicy(95, 5, 100, 1000);
+        //
+        // The primary gets 1000 ms, the hedge sent after 100 ms answers at once
+        server.setLatency(1000, 1000);
+        long received = server.getReceivedRequests();
+        CompletableFuture<Response> result = hedgePolicy.execute(httpClient, request);
+        while (server.getReceivedRequests() == received) {
+            Thread.sleep(1);
+        }
+        server.setLatency(0, 0);
+        Response response = result.get();
+        Assert.assertTrue(response.body().string().contains(LifetimeRepository.DEFAULT_TOKEN_LIFETIME));
+        Assert.assertEquals(hedgePolicy.getHedges(), 1);
+        Assert.assertEquals(hedgePolicy.getHedgeWins(), 1);
+        //
+        // The slow primary is cancelled; no call is left with an open body
+        long deadline = System.currentTimeMillis() + 2000;
+        while ((callCounter.ended.get() + callCounter.failed.get() < callCounter.started.get())
+                && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(callCounter.failed.get(), 1);
+        Assert.assertEquals(callCounter.ended.get() + callCounter.failed.get(), callCounter.started.get());
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.softserve.edu.rest.test;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.engine.ConnectionCounter;
+import com.softserve.edu.rest.engine.HttpClientRegistry;
+import com.softserve.edu.rest.engine.LoginResource;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.entity.RestParameters;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+public class HttpClientRegistryTest {
+
+    private LocalTokenServer server;
+    private LocalTokenServer otherServer;
+    private String previousServer;
+
+    @BeforeClass
+    public void startServers() {
+        server = new LocalTokenServer().start();
+        otherServer = new LocalTokenServer().start();
+        previousServer = RestUrlRepository.getServer();
+        RestUrlRepository.setServer(server.getUrl());
+    }
+
+    // A port may have been used by a stopped server before, its idle connections are stale
+    @BeforeMethod
+    public void evictConnections() {
+        HttpClientRegistry.getClient(server.getUrl()).connectionPool().evictAll();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetServer() {
+        server.setLatency(0, 0);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServers() {
+        RestUrlRepository.setServer(previousServer);
+        server.stop();
+        otherServer.stop();
+    }
+
+    @Test
+    public void checkOneClientPerServer() {
+        OkHttpClient httpClient = HttpClientRegistry.getClient(server.getUrl());
+        String portUrl = "http://localhost:" + server.getPort();
+        //
+        Assert.assertSame(HttpClientRegistry.getClient(portUrl), httpClient);
+        Assert.assertSame(HttpClientRegistry.getClient(server.getUrl() + "tokenlifetime/?x=1"), httpClient);
+        Assert.assertSame(HttpClientRegistry.getConnectionCounter(portUrl),
+                HttpClientRegistry.getConnectionCounter(server.getUrl()));
+        Assert.assertEquals(HttpClientRegistry.getConnectionCounter(portUrl).getServer(), server.getUrl());
+        //
+        OkHttpClient otherClient = HttpClientRegistry.getClient(otherServer.getUrl());
+        Assert.assertNotSame(otherClient, httpClient);
+        Assert.assertNotSame(otherClient.connectionPool(), httpClient.connectionPool());
+        Assert.assertSame(otherClient.dispatcher(), httpClient.dispatcher());
+    }
+
+    // Every resource of the server takes its connection from the same pool
+    @Test
+    public void checkReuseAcrossResources() {
+        ConnectionCounter connectionCounter = HttpClientRegistry.getConnectionCounter(server.getUrl());
+        long newBefore = connectionCounter.getNewConnections();
+        long acquiredBefore = connectionCounter.getAcquiredConnections();
+        long failedBefore = connectionCounter.getFailedConnections();
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+        LoginResource loginResource = new LoginResource();
+        RestParameters credentials = new RestParameters()
+                .addParameter("name", "admin")
+                .addParameter("password", "qwerty");
+        //
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(tokenlifetimeResource.httpGetAsEntity(null, null).getContent(),
+                    LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+            Assert.assertNotEquals(loginResource.httpPostAsEntity(null, null, credentials).getContent(), "false");
+        }
+        Assert.assertEquals(connectionCounter.getNewConnections() - newBefore, 1);
+        Assert.assertEquals(connectionCounter.getAcquiredConnections() - acquiredBefore, 10);
+        Assert.assertEquals(connectionCounter.getFailedConnections() - failedBefore, 0);
+        Assert.assertTrue(HttpClientRegistry.getConnectionCounters().contains(connectionCounter));
+        System.out.println(connectionCounter);
+    }
+
+    // The HEAD requests wait on the server together, so each one dials its own connection
+    @Test
+    public void checkPrewarmOpensConnections() throws InterruptedException {
+        server.setLatency(100, 100);
+        ConnectionCounter connectionCounter = HttpClientRegistry.getConnectionCounter(server.getUrl());
+        ConnectionPool connectionPool = HttpClientRegistry.getClient(server.getUrl()).connectionPool();
+        long newBefore = connectionCounter.getNewConnections();
+        //
+        HttpClientRegistry.prewarm(server.getUrl(), 3);
+        long deadline = System.currentTimeMillis() + 2000;
+        while ((connectionPool.idleConnectionCount() < 3) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(connectionPool.idleConnectionCount(), 3);
+        Assert.assertEquals(connectionCounter.getNewConnections() - newBefore, 3);
+        //
+        // The first call finds a warm connection
+        Assert.assertEquals(new TokenlifetimeResource().httpGetAsEntity(null, null).getContent(),
+                LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        Assert.assertEquals(connectionCounter.getNewConnections() - newBefore, 3);
+    }
+
+}
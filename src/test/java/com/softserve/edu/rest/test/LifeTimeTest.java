@@ -1,20 +1,29 @@
 package com.softserve.edu.rest.test;
 
 
-import org.powermock.api.mockito.PowerMockito;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import com.softserve.edu.rest.data.Lifetime;
 import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.RestUrlRepository;
 import com.softserve.edu.rest.data.User;
 import com.softserve.edu.rest.data.UserRepository;
 import com.softserve.edu.rest.engine.LoginResource;
 import com.softserve.edu.rest.engine.TokenlifetimeResource;
-import com.softserve.edu.rest.entity.SimpleEntity;
 import com.softserve.edu.rest.service.AdminService;
 import com.softserve.edu.rest.service.GuestService;
+import com.softserve.edu.rest.service.TokenManager;
+import com.softserve.edu.rest.stub.LocalTokenServer;
 
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
@@ -23,21 +32,68 @@ import io.qameta.allure.Story;
 
 public class LifeTimeTest {
 
-    @DataProvider // (parallel = true)
+    // Rows run in parallel, every local server takes one
+    private static final int LOCAL_SERVERS = 4;
+
+    private LocalTokenServer server;
+    private String previousServer;
+    private final List<String> servers = new ArrayList<>();
+    private final Map<String, LocalTokenServer> localServers = new ConcurrentHashMap<>();
+
+    // -Drest.server=http://host:port/ runs against a real server instead of the local ones
+    @BeforeClass
+    public void startServer() {
+        String realServer = System.getProperty("rest.server");
+        if (realServer == null) {
+            server = new LocalTokenServer().start().bind();
+            localServers.put(server.getUrl(), server);
+            for (int i = 1; i < LOCAL_SERVERS; i++) {
+                LocalTokenServer localServer = new LocalTokenServer().start();
+                localServers.put(localServer.getUrl(), localServer);
+            }
+            servers.addAll(localServers.keySet());
+        } else {
+            previousServer = RestUrlRepository.getServer();
+            RestUrlRepository.setServer(realServer);
+            servers.add(realServer);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        for (String serverUrl : servers) {
+            TokenManager.remove(serverUrl);
+        }
+        for (LocalTokenServer localServer : localServers.values()) {
+            if (localServer != server) {
+                localServer.stop();
+            }
+        }
+        if (server != null) {
+            server.stop();
+        }
+        if (previousServer != null) {
+            RestUrlRepository.setServer(previousServer);
+        }
+    }
+
+    @DataProvider(parallel = true)
     public Object[][] updateLifeTime() {
-        return new Object[][] {
-            { UserRepository.getAdmin(), LifetimeRepository.GetLongTime() },
-        };
+        Object[][] rows = new Object[servers.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[] { servers.get(i), UserRepository.getAdmin(), LifetimeRepository.GetLongTime() };
+        }
+        return rows;
     }
 
     @Description("Test Description: class LifeTimeTest; checkLoginReport(...)")
     @Severity(SeverityLevel.BLOCKER)
     @Story("checkLoginReport STORY")
     @Test(dataProvider = "updateLifeTime")
-    public void checkLoginReport(User adminUser, Lifetime lifetime) {
+    public void checkLoginReport(String serverUrl, User adminUser, Lifetime lifetime) {
         //
         // Steps
-        GuestService guestService = new GuestService();
+        GuestService guestService = new GuestService(serverUrl);
         Lifetime currentLifetime = guestService.getCurrentLifetime();
         System.out.println("\tStarted currentLifetime = " + currentLifetime);
         Assert.assertEquals(currentLifetime.getTimeAsString(),
@@ -63,29 +119,52 @@ public class LifeTimeTest {
         //System.out.println("LogoutUser");
         guestService = adminService.LogoutUser();
         //System.out.println("adminUser.getToken() = " + adminUser.getToken());
-        Assert.assertTrue(adminUser.getToken().isEmpty());
+        // The token lives in the Session, the shared User is never written
+        Assert.assertNull(adminUser.getToken());
+        Assert.assertEquals(adminService.getSession().getServer(), serverUrl);
     }
     
-    //@Test(dataProvider = "updateLifeTime")
-    public void checkLoginMock(User adminUser, Lifetime lifetime) throws Exception {
-        //
-        // Mock Object
-        LoginResource loginResource = PowerMockito.mock(LoginResource.class);
+    // Resources talk to the local server, so no mocks are needed
+    @Test(dataProvider = "updateLifeTime")
+    public void checkLocalServerLogin(String serverUrl, User adminUser, Lifetime lifetime) throws Exception {
+        LocalTokenServer localServer = localServers.get(serverUrl);
+        if (localServer == null) {
+            throw new SkipException("Needs a local server, " + serverUrl + " is a real one");
+        }
         //
-        TokenlifetimeResource tokenlifetimeResource = PowerMockito.mock(TokenlifetimeResource.class);
-        PowerMockito.when(tokenlifetimeResource.httpGetAsEntity(null, null))
-                .thenReturn(new SimpleEntity(LifetimeRepository.DEFAULT_TOKEN_LIFETIME));
-        // TODO
-        //PowerMockito.whenNew(TokenlifetimeResource.class).withNoArguments().thenReturn(tokenlifetimeResource);
+        // Stand-in Objects
+        LoginResource loginResource = new LoginResource(serverUrl);
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource(serverUrl);
+        localServer.setLatency(5, 10);
         //
         // Steps
-        //GuestService guestService = new GuestService();
         GuestService guestService = new GuestService(loginResource, tokenlifetimeResource);
         Lifetime currentLifetime = guestService.getCurrentLifetime();
         System.out.println("\tStarted currentLifetime = " + currentLifetime);
         Assert.assertEquals(currentLifetime.getTimeAsString(),
                 LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
         //
-        //PowerMockito.verify(tokenlifetimeResource).getPriceBySku(SKU);
+        AdminService adminService = guestService.SuccessfulAdminLogin(adminUser);
+        Assert.assertEquals(adminService.getLoggedUsers(), adminUser.getName());
+        adminService.LogoutUser();
+        Assert.assertEquals(localServer.getLoggedUsersCount(), 0);
+        localServer.setLatency(0, 0);
+    }
+
+    @Test
+    public void checkInjectedErrors() {
+        if (server == null) {
+            throw new SkipException("Errors are injected by the local server only");
+        }
+        server.setErrorRate(1.0, 503);
+        try {
+            new GuestService(server.getUrl()).SuccessfulAdminLogin(UserRepository.getAdmin());
+            Assert.fail("Login must fail on injected error");
+        } catch (RuntimeException e) {
+            Assert.assertEquals(e.getMessage(), "Error Login");
+        } finally {
+            server.setErrorRate(0, 500);
+        }
+        Assert.assertEquals(server.getInjectedErrors(), 1);
     }
 }
@@ -0,0 +1,63 @@
+package com.softserve.edu.rest.test;
+
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.stub.LocalTokenServer;
+import com.softserve.edu.rest.tools.LoadReport;
+import com.softserve.edu.rest.tools.LoadRunner;
+import com.softserve.edu.rest.tools.LoadSettings;
+import com.softserve.edu.rest.tools.ScenarioRepository;
+import com.softserve.edu.rest.tools.StepStatistics;
+
+public class LoadRunnerTest {
+
+    private LocalTokenServer server;
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalTokenServer().start().bind();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void checkAdminLifetimeScenario() {
+        LoadSettings settings = new LoadSettings()
+                .setVirtualUsers(4)
+                .setTargetRate(40)
+                .setRampUpMillis(200)
+                .setSteadyMillis(1000)
+                .setRampDownMillis(200);
+        LoadReport report = new LoadRunner(ScenarioRepository.getAdminLifetime(), settings).run();
+        System.out.println(report);
+        for (StepStatistics step : report.getSteps()) {
+            Assert.assertTrue(step.getCount() > 0, step.getName());
+            Assert.assertEquals(step.getErrors(), 0, step.getName());
+        }
+        Assert.assertEquals(server.getLoggedUsersCount(), 0);
+    }
+
+    @Test
+    public void checkThroughputCountsCompletedCalls() {
+        LoadSettings settings = new LoadSettings().setSteadyMillis(1000);
+        StepStatistics statistics = new StepStatistics("stalled");
+        //
+        // One call stalled for 1 s where one was expected every 10 ms
+        statistics.recordLatency(1000000000L, 10000000L);
+        LoadReport report = new LoadReport("stalled", settings, Collections.singletonList(statistics), statistics);
+        //
+        Assert.assertTrue(statistics.getHistogram().getTotalCount() > 50);
+        Assert.assertEquals(statistics.getCount(), 1);
+        Assert.assertEquals(report.getThroughput(statistics), 1.0, 0.001);
+        Assert.assertTrue(statistics.getPercentileMillis(50) > 400);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.softserve.edu.rest.test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.RestUrl;
+import com.softserve.edu.rest.engine.RestQueries;
+import com.softserve.edu.rest.engine.StreamingMultipartBody;
+import com.softserve.edu.rest.entity.SimpleEntity;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.HashingSink;
+import okio.Okio;
+
+public class MultipartUploadTest {
+
+    private static final MediaType IMAGE_PNG = MediaType.parse("image/png");
+
+    private LocalTokenServer server;
+    private Path directory;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new LocalTokenServer().start().bind();
+        directory = Files.createTempDirectory("upload");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() throws IOException {
+        server.stop();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private Path createFile(String name, long size) throws IOException {
+        Path file = directory.resolve(name);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+            randomAccessFile.setLength(size);
+            randomAccessFile.seek(size / 2);
+            randomAccessFile.write(name.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    @Test
+    public void checkSameBytesAsMultipartBody() throws IOException {
+        Path file = createFile("logo \"1\".png", 100000);
+        StreamingMultipartBody streamingBody = new StreamingMultipartBody("boundary-1")
+                .addField("catalog", "Каталог")
+                .addFile("image", file, IMAGE_PNG)
+                .setChunkBytes(4096);
+        MultipartBody multipartBody = new MultipartBody.Builder("boundary-1")
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("catalog", "Каталог")
+                .addFormDataPart("image", file.getFileName().toString(), RequestBody.create(IMAGE_PNG, file.toFile()))
+                .build();
+        Buffer streamed = new Buffer();
+        streamingBody.writeTo(streamed);
+        Buffer expected = new Buffer();
+        multipartBody.writeTo(expected);
+        //
+        Assert.assertEquals(streamingBody.contentType(), multipartBody.contentType());
+        Assert.assertEquals(streamingBody.contentLength(), multipartBody.contentLength());
+        Assert.assertEquals(streamed.readByteString(), expected.readByteString());
+    }
+
+    @Test
+    public void checkLargeUploadWithProgress() throws IOException {
+        Path file = createFile("catalog.csv", 64L * 1024 * 1024);
+        List<Long> progress = new ArrayList<>();
+        StreamingMultipartBody multipartBody = new StreamingMultipartBody()
+                .addField("format", "csv")
+                .addFile("catalog", file)
+                .setProgressListener((writtenBytes, totalBytes) -> progress.add(writtenBytes));
+        RestQueries<SimpleEntity> uploadResource = new RestQueries<SimpleEntity>(new RestUrl()
+                .addUrlServer(server.getUrl())
+                .addUriPost("upload/")) {
+        };
+        //
+        SimpleEntity simpleEntity = uploadResource.httpPostMultipartAsEntity(null, null, multipartBody);
+        //
+        // The body is hashed without holding it in memory
+        HashingSink sha1 = HashingSink.sha1(Okio.blackhole());
+        try (BufferedSink sink = Okio.buffer(sha1)) {
+            multipartBody.setProgressListener(null).writeTo(sink);
+        }
+        Assert.assertEquals(simpleEntity.getContent(), multipartBody.contentLength() + ":" + sha1.hash().hex());
+        Assert.assertTrue(progress.size() > 1000, "progress calls " + progress.size());
+        for (int i = 1; i < progress.size(); i++) {
+            Assert.assertTrue(progress.get(i) >= progress.get(i - 1));
+        }
+        Assert.assertEquals(progress.get(progress.size() - 1).longValue(), multipartBody.contentLength());
+    }
+
+}
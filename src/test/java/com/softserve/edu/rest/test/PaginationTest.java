@@ -0,0 +1,147 @@
+package com.softserve.edu.rest.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.Item;
+import com.softserve.edu.rest.data.RestUrl;
+import com.softserve.edu.rest.engine.EndpointMetrics;
+import com.softserve.edu.rest.engine.HttpClientRegistry;
+import com.softserve.edu.rest.engine.PageIterator;
+import com.softserve.edu.rest.engine.PageSettings;
+import com.softserve.edu.rest.engine.RestMetrics;
+import com.softserve.edu.rest.engine.RestQueries;
+import com.softserve.edu.rest.entity.RestParameters;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+import okhttp3.ConnectionPool;
+
+public class PaginationTest {
+
+    private static final int ITEMS_COUNT = 95;
+    private static final long LATENCY_MILLIS = 300;
+
+    private LocalTokenServer server;
+    private RestQueries<List<Item>> itemsQueries;
+
+    @BeforeClass
+    public void startServer() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            items.add(new Item(i, "Item " + i));
+        }
+        server = new LocalTokenServer().addCollection("items", items).start().bind();
+        itemsQueries = new RestQueries<List<Item>>(new RestUrl()
+                .addUrlServer(server.getUrl())
+                .addUriGet("items")
+                .addUriPost("")
+                .addUriPut("")
+                .addUriDelete("")) {
+        };
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    private List<Long> ids(Stream<Item> items) {
+        return items.map(Item::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void checkLinkHeader() {
+        RestParameters perPage = new RestParameters().addParameter("per_page", "10");
+        try (Stream<Item> items = itemsQueries.httpGetAsStream(null, perPage,
+                PageSettings.byLinkHeader(), page -> page)) {
+            List<Long> ids = ids(items);
+            Assert.assertEquals(ids.size(), ITEMS_COUNT);
+            Assert.assertEquals(ids.get(ITEMS_COUNT - 1), Long.valueOf(ITEMS_COUNT - 1));
+        }
+    }
+
+    @Test
+    public void checkPageParameters() {
+        PageIterator<List<Item>, Item> pages = itemsQueries.httpGetPages(null, null,
+                PageSettings.byPageParameters("page", "per_page", 20).setPrefetchDepth(3), page -> page);
+        long expectedId = 0;
+        while (pages.hasNext()) {
+            Assert.assertEquals(pages.next().getId(), expectedId++);
+        }
+        Assert.assertEquals(expectedId, ITEMS_COUNT);
+        Assert.assertEquals(pages.getReadPages(), 5);
+        // Pages behind the short last one may have gone out, no more than the prefetch depth
+        Assert.assertTrue(pages.getRequestedPages() <= 5 + 3);
+    }
+
+    // An iterator that is never read asks for nothing
+    @Test
+    public void checkNothingIsRequestedBeforeFirstRead() throws InterruptedException {
+        long receivedBefore = server.getReceivedRequests();
+        PageIterator<List<Item>, Item> pages = itemsQueries.httpGetPages(null, null,
+                PageSettings.byPageParameters("page", "per_page", 5).setPrefetchDepth(3), page -> page);
+        Thread.sleep(50);
+        Assert.assertEquals(pages.getRequestedPages(), 0);
+        Assert.assertEquals(server.getReceivedRequests(), receivedBefore);
+        pages.close();
+        Assert.assertFalse(pages.hasNext());
+        Assert.assertEquals(pages.getRequestedPages(), 0);
+    }
+
+    @Test
+    public void checkPrefetchIsBounded() {
+        PageIterator<List<Item>, Item> pages = itemsQueries.httpGetPages(null, null,
+                PageSettings.byPageParameters("page", "per_page", 5).setPrefetchDepth(2), page -> page);
+        for (int i = 0; i < 12; i++) {
+            pages.next();
+        }
+        pages.close();
+        Assert.assertEquals(pages.getReadPages(), 3);
+        Assert.assertEquals(pages.getRequestedPages(), 3 + 2);
+        Assert.assertFalse(pages.hasNext());
+    }
+
+    // Pages 1 to 4 go out together, page 5 once page 2 is taken; pages 1 and 2 are read
+    // and page 5 is still on the way when the stream is closed
+    @Test
+    public void checkEarlyCloseCancelsPages() throws InterruptedException {
+        server.setLatency(LATENCY_MILLIS, LATENCY_MILLIS);
+        try {
+            EndpointMetrics endpointMetrics = RestMetrics.get("GET", server.getUrl() + "items");
+            long cancelledBefore = endpointMetrics.snapshot().getCancelled();
+            long receivedBefore = server.getReceivedRequests();
+            //
+            List<Long> ids;
+            try (Stream<Item> items = itemsQueries.httpGetAsStream(null, null,
+                    PageSettings.byPageParameters("page", "per_page", 5).setPrefetchDepth(3), page -> page)) {
+                ids = ids(items.limit(7));
+            }
+            Assert.assertEquals(ids, LongStream.range(0, 7).boxed().collect(Collectors.toList()));
+            ConnectionPool connectionPool = HttpClientRegistry.getClient(server.getUrl()).connectionPool();
+            long deadline = System.currentTimeMillis() + 2 * LATENCY_MILLIS;
+            while (((endpointMetrics.snapshot().getCancelled() - cancelledBefore < 1)
+                    || (connectionPool.connectionCount() > connectionPool.idleConnectionCount()))
+                    && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(endpointMetrics.snapshot().getCancelled() - cancelledBefore >= 1,
+                    endpointMetrics.snapshot().toString());
+            Assert.assertEquals(connectionPool.connectionCount(), connectionPool.idleConnectionCount());
+            // Nothing is asked for after close
+            Thread.sleep(LATENCY_MILLIS);
+            Assert.assertTrue(server.getReceivedRequests() - receivedBefore <= 5,
+                    "received " + (server.getReceivedRequests() - receivedBefore));
+        } finally {
+            server.setLatency(0, 0);
+        }
+    }
+
+}
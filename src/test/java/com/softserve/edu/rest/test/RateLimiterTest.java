@@ -0,0 +1,103 @@
+package com.softserve.edu.rest.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.engine.RateLimiter;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+import okhttp3.Response;
+
+public class RateLimiterTest {
+
+    private LocalTokenServer server;
+
+    @BeforeMethod
+    public void startServer() {
+        server = new LocalTokenServer().start().bind();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        RateLimiter.reset();
+        server.stop();
+    }
+
+    @Test
+    public void checkBurstAndRate() {
+        RateLimiter rateLimiter = RateLimiter.configure(server.getUrl(), 50, 5);
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        long startMillis = System.currentTimeMillis();
+        //
+        for (int i = 0; i < 40; i++) {
+            results.add(tokenlifetimeResource.httpGetAsTextAsync(null, null));
+        }
+        for (CompletableFuture<String> result : results) {
+            Assert.assertTrue(result.join().contains(LifetimeRepository.DEFAULT_TOKEN_LIFETIME));
+        }
+        // 5 at once, the other 35 at 50 per second
+        long elapsedMillis = System.currentTimeMillis() - startMillis;
+        Assert.assertTrue(elapsedMillis >= 600, "elapsed " + elapsedMillis);
+        Assert.assertEquals(rateLimiter.getAcquired(), 40);
+        Assert.assertTrue(rateLimiter.getDelayed() > 0);
+        Assert.assertTrue(rateLimiter.getObservedRate() <= 60, rateLimiter.toString());
+        Assert.assertEquals(rateLimiter.getThrottled(), 0);
+        System.out.println(rateLimiter);
+    }
+
+    // The second token is due after 500 ms; once it is cancelled the third one takes its place
+    @Test
+    public void checkCancelledReservationReturnsToken() {
+        RateLimiter rateLimiter = RateLimiter.configure(server.getUrl(), 2, 1);
+        rateLimiter.acquireAsync().join();
+        CompletableFuture<Void> cancelled = rateLimiter.acquireAsync();
+        Assert.assertFalse(cancelled.isDone());
+        cancelled.cancel(false);
+        //
+        long startMillis = System.currentTimeMillis();
+        rateLimiter.acquireAsync().join();
+        long elapsedMillis = System.currentTimeMillis() - startMillis;
+        Assert.assertTrue(elapsedMillis < 800, "elapsed " + elapsedMillis);
+        Assert.assertEquals(rateLimiter.getAcquired(), 2);
+    }
+
+    // Only the last second counts, an old burst does not show up
+    @Test
+    public void checkObservedRateWindow() throws InterruptedException {
+        RateLimiter rateLimiter = RateLimiter.configure(server.getUrl(), 100, 10);
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquire();
+        }
+        Assert.assertTrue(rateLimiter.getObservedRate() > 0, rateLimiter.toString());
+        Thread.sleep(RateLimiter.OBSERVED_WINDOW_MILLIS + 200);
+        Assert.assertEquals(rateLimiter.getObservedRate(), 0.0);
+    }
+
+    @Test
+    public void checkRetryAfter() {
+        server.setRequestLimit(10);
+        RateLimiter rateLimiter = RateLimiter.configure(server.getUrl(), 100, 10);
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+        //
+        for (int i = 0; i < 25; i++) {
+            try (Response response = tokenlifetimeResource.httpGetAsResponse(null, null)) {
+                Assert.assertEquals(response.code(), 200);
+            }
+        }
+        Assert.assertTrue(server.getRejectedRequests() > 0);
+        Assert.assertEquals(rateLimiter.getThrottled(), server.getRejectedRequests());
+        Assert.assertEquals(rateLimiter.getRetries(), rateLimiter.getThrottled());
+        Assert.assertTrue(rateLimiter.getAllowedRate() < rateLimiter.getConfiguredRate());
+        System.out.println(rateLimiter);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.softserve.edu.rest.test;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.Lifetime;
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.UserRepository;
+import com.softserve.edu.rest.engine.ResponseCache;
+import com.softserve.edu.rest.service.AdminService;
+import com.softserve.edu.rest.service.GuestService;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+public class ResponseCacheTest {
+
+    private LocalTokenServer server;
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalTokenServer().start().bind();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        ResponseCache.setDefault(null);
+        server.stop();
+    }
+
+    @Test
+    public void checkHitAndWriteInvalidation() {
+        ResponseCache responseCache = new ResponseCache(16, 60000);
+        ResponseCache.setDefault(responseCache);
+        //
+        GuestService guestService = new GuestService();
+        Assert.assertEquals(guestService.getCurrentLifetime().getTimeAsString(),
+                LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        Assert.assertEquals(new GuestService().getCurrentLifetime().getTimeAsString(),
+                LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        Assert.assertEquals(responseCache.getMisses(), 1);
+        Assert.assertEquals(responseCache.getHits(), 1);
+        //
+        AdminService adminService = guestService
+                .SuccessfulAdminLogin(UserRepository.getAdmin())
+                .UpdateTokenlifetime(LifetimeRepository.GetLongTime());
+        Assert.assertEquals(adminService.getCurrentLifetime().getTimeAsString(),
+                LifetimeRepository.LONG_TOKEN_LIFETIME);
+        Assert.assertEquals(responseCache.getMisses(), 2);
+        //
+        adminService.UpdateTokenlifetime(new Lifetime(LifetimeRepository.DEFAULT_TOKEN_LIFETIME))
+                .LogoutUser();
+        Assert.assertTrue(responseCache.getInvalidations() >= 2);
+    }
+
+    @Test
+    public void checkEtagRevalidation() {
+        ResponseCache responseCache = new ResponseCache(16, 0);
+        ResponseCache.setDefault(responseCache);
+        //
+        GuestService guestService = new GuestService();
+        guestService.getCurrentLifetime();
+        Lifetime lifetime = guestService.getCurrentLifetime();
+        Assert.assertEquals(lifetime.getTimeAsString(), LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        Assert.assertEquals(responseCache.getRevalidations(), 1);
+    }
+
+}
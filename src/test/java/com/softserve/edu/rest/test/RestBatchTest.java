@@ -0,0 +1,198 @@
+package com.softserve.edu.rest.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.RestUrl;
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.engine.BatchResult;
+import com.softserve.edu.rest.engine.LoginResource;
+import com.softserve.edu.rest.engine.LogoutResource;
+import com.softserve.edu.rest.engine.RestQueries;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.entity.RestParameters;
+import com.softserve.edu.rest.entity.SimpleEntity;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+public class RestBatchTest {
+
+    private static final int USERS = 12;
+    private static final int MAX_CONCURRENCY = 3;
+    private static final long LATENCY_MILLIS = 100;
+
+    // Token lifetime as a number; the "false" of an error answer can not be converted
+    public static class NumericEntity {
+        private long content;
+
+        public long getContent() {
+            return content;
+        }
+    }
+
+    private LocalTokenServer server;
+    private String previousServer;
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalTokenServer().start();
+        for (int i = 0; i < USERS; i++) {
+            server.addUser("user" + i, "pass" + i, false);
+        }
+        previousServer = RestUrlRepository.getServer();
+        RestUrlRepository.setServer(server.getUrl());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetServer() {
+        server.setLatency(0, 0).setErrorRate(0, 500)
+                .setTokenLifetime(Long.parseLong(LifetimeRepository.DEFAULT_TOKEN_LIFETIME));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        RestUrlRepository.setServer(previousServer);
+        server.stop();
+    }
+
+    private void assertInputOrder(List<BatchResult<SimpleEntity>> results, List<RestParameters> parameters) {
+        Assert.assertEquals(results.size(), parameters.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertEquals(results.get(i).getIndex(), i);
+            Assert.assertSame(results.get(i).getParameters(), parameters.get(i));
+            Assert.assertTrue(results.get(i).isSuccess(), String.valueOf(results.get(i).getError()));
+        }
+    }
+
+    // Answers arrive out of order, every result stays at the index of its parameters;
+    // even users are valid, odd users give "false"
+    @Test
+    public void checkAsyncVerbsKeepInputOrder() {
+        server.setLatency(0, 60);
+        LoginResource loginResource = new LoginResource();
+        String adminToken = loginResource.httpPostAsEntity(null, null,
+                new RestParameters().addParameter("name", "admin").addParameter("password", "qwerty"))
+                .getContent();
+        //
+        List<RestParameters> logins = IntStream.range(0, USERS)
+                .mapToObj(i -> new RestParameters()
+                        .addParameter("name", "user" + i)
+                        .addParameter("password", (i % 2 == 0) ? "pass" + i : "wrong"))
+                .collect(Collectors.toList());
+        List<BatchResult<SimpleEntity>> loginResults = loginResource.batch(MAX_CONCURRENCY)
+                .postAll(logins.stream());
+        assertInputOrder(loginResults, logins);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String token = loginResults.get(i).getEntity().getContent();
+            Assert.assertEquals(token.equals("false"), i % 2 != 0, token);
+            tokens.add(token);
+        }
+        //
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+        List<RestParameters> queries = IntStream.range(0, USERS)
+                .mapToObj(i -> new RestParameters().addParameter("item", String.valueOf(i)))
+                .collect(Collectors.toList());
+        List<BatchResult<SimpleEntity>> lifetimeResults = tokenlifetimeResource.batch(MAX_CONCURRENCY)
+                .getAll(queries.stream());
+        assertInputOrder(lifetimeResults, queries);
+        for (int i = 0; i < USERS; i++) {
+            Assert.assertEquals(lifetimeResults.get(i).getEntity().getContent(),
+                    LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        }
+        //
+        List<RestParameters> updates = IntStream.range(0, USERS)
+                .mapToObj(i -> new RestParameters()
+                        .addParameter("token", (i % 2 == 0) ? adminToken : tokens.get(i))
+                        .addParameter("time", String.valueOf(600000 + i)))
+                .collect(Collectors.toList());
+        List<BatchResult<SimpleEntity>> updateResults = tokenlifetimeResource.batch(MAX_CONCURRENCY)
+                .putAll(updates.stream());
+        assertInputOrder(updateResults, updates);
+        for (int i = 0; i < USERS; i++) {
+            Assert.assertEquals(updateResults.get(i).getEntity().getContent(), (i % 2 == 0) ? "true" : "false");
+        }
+        //
+        List<RestParameters> logouts = IntStream.range(0, USERS)
+                .mapToObj(i -> new RestParameters()
+                        .addParameter("name", "user" + i)
+                        .addParameter("token", tokens.get(i)))
+                .collect(Collectors.toList());
+        List<BatchResult<SimpleEntity>> logoutResults = new LogoutResource()
+                .batch(MAX_CONCURRENCY).deleteAll(logouts.stream());
+        assertInputOrder(logoutResults, logouts);
+        for (int i = 0; i < USERS; i++) {
+            Assert.assertEquals(logoutResults.get(i).getEntity().getContent(), (i % 2 == 0) ? "true" : "false");
+        }
+        Assert.assertEquals(server.getLoggedUsersCount(), 1);
+    }
+
+    @Test
+    public void checkMaxConcurrencyBound() {
+        LocalTokenServer slowServer = new LocalTokenServer().start().setLatency(LATENCY_MILLIS, LATENCY_MILLIS);
+        try {
+            List<RestParameters> parameters = IntStream.range(0, 4 * MAX_CONCURRENCY)
+                    .mapToObj(i -> new RestParameters().addParameter("item", String.valueOf(i)))
+                    .collect(Collectors.toList());
+            long startMillis = System.currentTimeMillis();
+            //
+            RestQueries<SimpleEntity> slowResource = new RestQueries<SimpleEntity>(new RestUrl()
+                    .addUrlServer(slowServer.getUrl())
+                    .addUriGet("tokenlifetime/")
+                    .addUriPost("")
+                    .addUriPut("")
+                    .addUriDelete(""), SimpleEntity.class) {
+            };
+            List<BatchResult<SimpleEntity>> results = slowResource.batch(MAX_CONCURRENCY)
+                    .getAll(parameters.stream());
+            long elapsedMillis = System.currentTimeMillis() - startMillis;
+            assertInputOrder(results, parameters);
+            Assert.assertEquals(slowServer.getPeakActiveRequests(), MAX_CONCURRENCY);
+            // Four rounds of MAX_CONCURRENCY calls
+            Assert.assertTrue(elapsedMillis >= 4 * LATENCY_MILLIS, "elapsed " + elapsedMillis);
+        } finally {
+            slowServer.stop();
+        }
+    }
+
+    @Test
+    public void checkFailedItemsDoNotStopTheBatch() {
+        server.setSeed(1).setErrorRate(0.3, 500);
+        long injectedBefore = server.getInjectedErrors();
+        List<RestParameters> parameters = IntStream.range(0, 20)
+                .mapToObj(i -> new RestParameters().addParameter("item", String.valueOf(i)))
+                .collect(Collectors.toList());
+        //
+        RestQueries<NumericEntity> lifetimeResource =
+                new RestQueries<NumericEntity>(RestUrlRepository.getTokenLifetime(), NumericEntity.class) { };
+        List<BatchResult<NumericEntity>> results = lifetimeResource.batch(MAX_CONCURRENCY)
+                .getAll(parameters.stream());
+        Assert.assertEquals(results.size(), parameters.size());
+        int failed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult<NumericEntity> result = results.get(i);
+            Assert.assertEquals(result.getIndex(), i);
+            Assert.assertSame(result.getParameters(), parameters.get(i));
+            if (result.isSuccess()) {
+                Assert.assertEquals(String.valueOf(result.getEntity().getContent()),
+                        LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+            } else {
+                failed++;
+                Assert.assertNull(result.getEntity());
+                Assert.assertTrue(result.getError().getMessage().contains(NumericEntity.class.getName()),
+                        result.getError().getMessage());
+            }
+        }
+        Assert.assertTrue(failed > 0);
+        Assert.assertEquals(failed, server.getInjectedErrors() - injectedBefore);
+    }
+
+}
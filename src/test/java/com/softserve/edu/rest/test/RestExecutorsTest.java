@@ -0,0 +1,69 @@
+package com.softserve.edu.rest.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.engine.BatchResult;
+import com.softserve.edu.rest.engine.RestBatch;
+import com.softserve.edu.rest.engine.RestExecutors;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.entity.RestParameters;
+import com.softserve.edu.rest.entity.SimpleEntity;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+public class RestExecutorsTest {
+
+    private static final long LATENCY_MILLIS = 200;
+
+    private LocalTokenServer server;
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalTokenServer().start().bind().setLatency(LATENCY_MILLIS, LATENCY_MILLIS);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    // mvn -P java21 runs 2000 blocking calls at once on virtual threads
+    @Test
+    public void checkBlockingBatch() {
+        int concurrency = RestExecutors.isVirtual() ? 2000 : 200;
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+        RestBatch<SimpleEntity> batch = new RestBatch<>(tokenlifetimeResource, concurrency);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long startMillis = System.currentTimeMillis();
+        //
+        List<BatchResult<SimpleEntity>> results = batch.executeBlocking(
+                IntStream.range(0, concurrency).mapToObj(i -> new RestParameters()),
+                parameters -> tokenlifetimeResource.httpGetAsEntity(null, parameters));
+        long elapsedMillis = System.currentTimeMillis() - startMillis;
+        for (BatchResult<SimpleEntity> result : results) {
+            Assert.assertTrue(result.isSuccess(), String.valueOf(result.getError()));
+            Assert.assertEquals(result.getEntity().getContent(), LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        }
+        // One after another it would be concurrency * LATENCY_MILLIS
+        Assert.assertTrue(elapsedMillis < concurrency * LATENCY_MILLIS / 10,
+                RestExecutors.getThreadMode() + " threads, elapsed " + elapsedMillis);
+        // Client and stand-in both block on virtual threads, the platform ones stay few
+        if (RestExecutors.isVirtual()) {
+            Assert.assertTrue(threads.getPeakThreadCount() < concurrency / 4,
+                    "peak platform threads " + threads.getPeakThreadCount());
+        }
+        System.out.println(RestExecutors.getThreadMode() + " threads: " + concurrency
+                + " blocking calls in " + elapsedMillis + " ms, peak platform threads "
+                + threads.getPeakThreadCount());
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.softserve.edu.rest.test;
+
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import com.softserve.edu.rest.data.UserRepository;
+import com.softserve.edu.rest.engine.EndpointMetrics;
+import com.softserve.edu.rest.engine.LoginResource;
+import com.softserve.edu.rest.engine.RestMetrics;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.service.GuestService;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+public class RestMetricsTest {
+
+    private LocalTokenServer server;
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalTokenServer().start().bind();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void checkEndpointMetrics() {
+        GuestService guestService = new GuestService();
+        guestService.getCurrentLifetime();
+        guestService.SuccessfulAdminLogin(UserRepository.getAdmin())
+                .LogoutUser();
+        //
+        EndpointMetrics.Snapshot lifetime = RestMetrics.get("GET", server.getUrl() + "tokenlifetime/").snapshot();
+        Assert.assertEquals(lifetime.getCalls(), 1);
+        Assert.assertEquals(lifetime.getStatusCodes().get(200), Long.valueOf(1));
+        Assert.assertTrue(lifetime.getResponseBytes() > 0);
+        Assert.assertEquals(lifetime.getTotalMillis().getCount(), 1);
+        //
+        EndpointMetrics.Snapshot login = RestMetrics.get("POST", server.getUrl() + "login/").snapshot();
+        Assert.assertEquals(login.getCalls(), 1);
+        Assert.assertTrue(login.getRequestBytes() > 0);
+        //
+        JsonArray json = new JsonParser().parse(RestMetrics.toJson()).getAsJsonArray();
+        Assert.assertTrue(json.size() >= 3);
+        Assert.assertFalse(json.get(0).getAsJsonObject().has("source"));
+        Assert.assertFalse(json.get(0).getAsJsonObject().getAsJsonObject("totalMillis").has("histogram"));
+        System.out.println(RestMetrics.toText());
+    }
+
+    // What a step attaches: only the calls between the two snapshots
+    @Test
+    public void checkSnapshotSince() {
+        LocalTokenServer stepServer = new LocalTokenServer().start().bind();
+        try {
+            TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+            LoginResource loginResource = new LoginResource();
+            for (int i = 0; i < 3; i++) {
+                tokenlifetimeResource.httpGetAsEntity(null, null);
+            }
+            loginResource.httpGetAsEntity(null, null);
+            EndpointMetrics metrics = RestMetrics.get("GET", stepServer.getUrl() + "tokenlifetime/");
+            EndpointMetrics.Snapshot before = metrics.snapshot();
+            List<EndpointMetrics.Snapshot> beforeStep = tokenlifetimeResource.getMetricsSnapshot();
+            //
+            tokenlifetimeResource.httpGetAsEntity(null, null);
+            tokenlifetimeResource.httpGetAsEntity(null, null);
+            //
+            EndpointMetrics.Snapshot after = metrics.snapshot();
+            EndpointMetrics.Snapshot delta = after.since(before);
+            Assert.assertEquals(after.getCalls(), 5);
+            Assert.assertEquals(delta.getCalls(), 2);
+            Assert.assertEquals(delta.getStatusCodes().get(200), Long.valueOf(2));
+            Assert.assertEquals(delta.getTotalMillis().getCount(), 2);
+            Assert.assertEquals(delta.getResponseBytes() * 5, after.getResponseBytes() * 2);
+            Assert.assertTrue(delta.getTotalMillis().getMax() <= after.getTotalMillis().getMax());
+            Assert.assertSame(after.since(null), after);
+            // An earlier snapshot of another endpoint, e.g. from before RestMetrics.reset()
+            Assert.assertSame(after.since(new EndpointMetrics("GET", "x").snapshot()), after);
+            //
+            String summary = tokenlifetimeResource.getMetricsSummary(beforeStep);
+            System.out.println(summary);
+            Assert.assertTrue(summary.contains("calls=2 "), summary);
+            Assert.assertEquals(summary.split("\n").length, 1, summary);
+            Assert.assertTrue(loginResource.getMetricsSummary(loginResource.getMetricsSnapshot()).isEmpty());
+            Assert.assertTrue(tokenlifetimeResource.getMetricsSummary().contains("calls=5 "));
+        } finally {
+            stepServer.stop();
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.softserve.edu.rest.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.engine.ServerPool;
+import com.softserve.edu.rest.engine.ServerPool.Replica;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.entity.SimpleEntity;
+import com.softserve.edu.rest.service.GuestService;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+public class ServerPoolTest {
+
+    private static final String TOKEN_SERVICE = "http://token-service/";
+
+    private LocalTokenServer[] servers;
+
+    @BeforeClass
+    public void startServers() {
+        servers = new LocalTokenServer[3];
+        for (int i = 0; i < servers.length; i++) {
+            servers[i] = new LocalTokenServer().start();
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetServers() {
+        ServerPool.reset();
+        for (LocalTokenServer server : servers) {
+            server.setLatency(0, 0).setErrorRate(0, 503);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServers() {
+        for (LocalTokenServer server : servers) {
+            server.stop();
+        }
+    }
+
+    private ServerPool createPool(ServerPool.Selector selector) {
+        return new ServerPool(selector, servers[0].getUrl(), servers[1].getUrl(), servers[2].getUrl());
+    }
+
+    @Test
+    public void checkRoundRobin() {
+        ServerPool serverPool = ServerPool.bind(TOKEN_SERVICE, createPool(ServerPool.roundRobin()));
+        GuestService guestService = new GuestService(TOKEN_SERVICE);
+        //
+        for (int i = 0; i < 30; i++) {
+            Assert.assertEquals(guestService.getCurrentLifetime().getTimeAsString(),
+                    LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        }
+        for (Replica replica : serverPool.getReplicas()) {
+            Assert.assertEquals(replica.getRequests(), 10);
+            Assert.assertEquals(replica.getInFlight(), 0);
+        }
+        System.out.println(serverPool);
+    }
+
+    @Test
+    public void checkFailingReplicaEjected() {
+        servers[1].setErrorRate(1.0, 503);
+        ServerPool serverPool = createPool(ServerPool.roundRobin())
+                .setMaxFailures(2)
+                .setEjectMillis(60000);
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource(TOKEN_SERVICE);
+        tokenlifetimeResource.setServerPool(serverPool);
+        int errors = 0;
+        //
+        for (int i = 0; i < 30; i++) {
+            if (!LifetimeRepository.DEFAULT_TOKEN_LIFETIME.equals(
+                    tokenlifetimeResource.httpGetAsEntity(null, null).getContent())) {
+                errors++;
+            }
+        }
+        Replica failing = serverPool.getReplicas().get(1);
+        Assert.assertEquals(errors, 2);
+        Assert.assertEquals(failing.getFailures(), 2);
+        Assert.assertEquals(failing.getEjections(), 1);
+        Assert.assertTrue(failing.isEjected());
+        Assert.assertEquals(serverPool.getHealthyCount(), 2);
+        System.out.println(serverPool);
+    }
+
+    @Test
+    public void checkSlowReplicaEjected() {
+        servers[2].setLatency(100, 100);
+        ServerPool serverPool = ServerPool.bind(TOKEN_SERVICE, createPool(ServerPool.roundRobin())
+                .setSlowMillis(50)
+                .setEjectMillis(60000));
+        GuestService guestService = new GuestService(TOKEN_SERVICE);
+        //
+        for (int i = 0; i < 30; i++) {
+            guestService.getCurrentLifetime();
+        }
+        Replica slow = serverPool.getReplicas().get(2);
+        Assert.assertEquals(slow.getRequests(), ServerPool.DEFAULT_MAX_FAILURES);
+        Assert.assertTrue(slow.isEjected());
+        Assert.assertTrue(slow.getLatencyMillis(50) >= 100, "p50 " + slow.getLatencyMillis(50));
+    }
+
+    @Test
+    public void checkEwmaLatencyPrefersFastReplicas() {
+        servers[2].setLatency(100, 100);
+        ServerPool serverPool = ServerPool.bind(TOKEN_SERVICE, createPool(ServerPool.ewmaLatency()));
+        GuestService guestService = new GuestService(TOKEN_SERVICE);
+        //
+        for (int i = 0; i < 30; i++) {
+            guestService.getCurrentLifetime();
+        }
+        Replica slow = serverPool.getReplicas().get(2);
+        Assert.assertTrue(slow.getRequests() <= 2, "slow replica requests " + slow.getRequests());
+        Assert.assertTrue(slow.getEwmaMillis() >= 100, "ewma " + slow.getEwmaMillis());
+        Assert.assertEquals(serverPool.getReplicas().get(0).getRequests()
+                + serverPool.getReplicas().get(1).getRequests() + slow.getRequests(), 30);
+        System.out.println(serverPool);
+    }
+
+    @Test
+    public void checkCancelledCallsAreNoFailures() {
+        for (LocalTokenServer server : servers) {
+            server.setLatency(200, 200);
+        }
+        ServerPool serverPool = createPool(ServerPool.roundRobin())
+                .setMaxFailures(2)
+                .setEjectMillis(60000);
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource(TOKEN_SERVICE);
+        tokenlifetimeResource.setServerPool(serverPool);
+        List<CompletableFuture<SimpleEntity>> results = new ArrayList<>();
+        //
+        for (int i = 0; i < 9; i++) {
+            results.add(tokenlifetimeResource.httpGetAsEntityAsync(null, null));
+        }
+        for (CompletableFuture<SimpleEntity> result : results) {
+            result.cancel(true);
+        }
+        for (Replica replica : serverPool.getReplicas()) {
+            Assert.assertEquals(replica.getRequests(), 3);
+            Assert.assertEquals(replica.getInFlight(), 0);
+            Assert.assertEquals(replica.getFailures(), 0);
+            Assert.assertEquals(replica.getEjections(), 0);
+        }
+        Assert.assertEquals(serverPool.getHealthyCount(), 3);
+        Assert.assertEquals(tokenlifetimeResource.httpGetAsEntity(null, null).getContent(),
+                LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.softserve.edu.rest.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.engine.HttpClientRegistry;
+import com.softserve.edu.rest.engine.RestMetrics;
+import com.softserve.edu.rest.engine.SingleFlight;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.entity.SimpleEntity;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+import okhttp3.ConnectionPool;
+
+public class SingleFlightTest {
+
+    private LocalTokenServer server;
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalTokenServer().start().bind().setLatency(200, 200);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @BeforeMethod
+    public void resetMetrics() {
+        RestMetrics.reset();
+    }
+
+    private long serverCalls() {
+        return RestMetrics.get("GET", RestUrlRepository.getTokenLifetime().getUrlGet()).snapshot().getCalls();
+    }
+
+    @Test
+    public void checkConcurrentGetsShareOneCall() {
+        SingleFlight singleFlight = new SingleFlight();
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+        tokenlifetimeResource.setSingleFlight(singleFlight);
+        List<CompletableFuture<SimpleEntity>> results = new ArrayList<>();
+        //
+        for (int i = 0; i < 20; i++) {
+            results.add(tokenlifetimeResource.httpGetAsEntityAsync(null, null));
+        }
+        for (CompletableFuture<SimpleEntity> result : results) {
+            Assert.assertEquals(result.join().getContent(), LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        }
+        Assert.assertEquals(serverCalls(), 1);
+        Assert.assertEquals(singleFlight.getCalls(), 1);
+        Assert.assertEquals(singleFlight.getSaved(), 19);
+        Assert.assertEquals(singleFlight.getInFlight(), 0);
+        //
+        // A GET after the answer is a new call
+        tokenlifetimeResource.httpGetAsEntity(null, null);
+        Assert.assertEquals(serverCalls(), 2);
+        System.out.println(singleFlight);
+    }
+
+    @Test
+    public void checkCancellation() {
+        SingleFlight singleFlight = new SingleFlight();
+        TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+        tokenlifetimeResource.setSingleFlight(singleFlight);
+        //
+        // One caller leaves, the other still gets the entity
+        CompletableFuture<SimpleEntity> first = tokenlifetimeResource.httpGetAsEntityAsync(null, null);
+        CompletableFuture<SimpleEntity> second = tokenlifetimeResource.httpGetAsEntityAsync(null, null);
+        first.cancel(true);
+        Assert.assertEquals(second.join().getContent(), LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        Assert.assertEquals(singleFlight.getCancelledFlights(), 0);
+        //
+        // All callers leave, the call is cancelled
+        first = tokenlifetimeResource.httpGetAsEntityAsync(null, null);
+        second = tokenlifetimeResource.httpGetAsEntityAsync(null, null);
+        first.cancel(true);
+        second.cancel(true);
+        Assert.assertEquals(singleFlight.getCancelledFlights(), 1);
+        Assert.assertEquals(singleFlight.getInFlight(), 0);
+        //
+        // The next caller is not joined to the cancelled call
+        Assert.assertEquals(tokenlifetimeResource.httpGetAsEntity(null, null).getContent(),
+                LifetimeRepository.DEFAULT_TOKEN_LIFETIME);
+        Assert.assertEquals(singleFlight.getCalls(), 3);
+    }
+
+    @Test
+    public void checkCancelledAnswersAreClosed() throws InterruptedException {
+        server.setLatency(0, 0);
+        try {
+            TokenlifetimeResource tokenlifetimeResource = new TokenlifetimeResource();
+            tokenlifetimeResource.setSingleFlight(new SingleFlight());
+            //
+            // Cancelled at all moments around the arrival of the answer
+            for (int i = 0; i < 200; i++) {
+                CompletableFuture<SimpleEntity> result = tokenlifetimeResource.httpGetAsEntityAsync(null, null);
+                long deadline = System.nanoTime() + (i % 20) * 50000L;
+                while (System.nanoTime() < deadline) {
+                    Thread.yield();
+                }
+                result.cancel(true);
+            }
+            ConnectionPool connectionPool = HttpClientRegistry.getClient(server.getUrl()).connectionPool();
+            long deadline = System.currentTimeMillis() + 2000;
+            while ((connectionPool.connectionCount() > connectionPool.idleConnectionCount())
+                    && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(connectionPool.connectionCount(), connectionPool.idleConnectionCount());
+        } finally {
+            server.setLatency(200, 200);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.softserve.edu.rest.test;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.service.GuestService;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+import com.softserve.edu.rest.tools.LoadScenario;
+import com.softserve.edu.rest.tools.ScenarioRepository;
+import com.softserve.edu.rest.tools.SoakReport;
+import com.softserve.edu.rest.tools.SoakRunner;
+import com.softserve.edu.rest.tools.SoakSample;
+import com.softserve.edu.rest.tools.SoakSettings;
+
+// mvn -P soak test -Dtest=SoakTest loops the flows for hours
+public class SoakTest {
+
+    private LocalTokenServer server;
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalTokenServer().start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    private SoakSettings createSettings(long durationMillis, long sampleIntervalMillis) {
+        return new SoakSettings()
+                .setDurationMillis(durationMillis)
+                .setSampleIntervalMillis(sampleIntervalMillis)
+                .setWarmupMillis(Math.min(durationMillis / 3, 5 * 60 * 1000L))
+                .setPauseMillis(10);
+    }
+
+    @Test
+    public void checkServiceFlowsDoNotLeak() {
+        String url = server.getUrl();
+        LoadScenario lifetime = new LoadScenario("Lifetime", () -> new GuestService(url))
+                .addStep("getCurrentLifetime", GuestService.class, GuestService::getCurrentLifetime);
+        //
+        SoakReport report = new SoakRunner(createSettings(Long.getLong("soak.millis", 3000),
+                Long.getLong("soak.sample.millis", 100)),
+                ScenarioRepository.getAdminLifetime(url), lifetime).run();
+        System.out.println(report);
+        //
+        Assert.assertTrue(report.getLast().getIterations() > 0);
+        Assert.assertEquals(report.getLast().getErrors(), 0);
+        Assert.assertFalse(report.isGrowing(SoakSample.Metric.LIVE_THREADS), report.toString());
+        Assert.assertFalse(report.isGrowing(SoakSample.Metric.OPEN_FILES), report.toString());
+        Assert.assertFalse(report.isGrowing(SoakSample.Metric.POOLED_CONNECTIONS), report.toString());
+        Assert.assertEquals(server.getLoggedUsersCount(), 0);
+    }
+
+    @Test
+    public void checkThreadLeakFlagged() {
+        CountDownLatch release = new CountDownLatch(1);
+        LoadScenario leak = new LoadScenario("ThreadLeak", () -> {
+            Thread thread = new Thread(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+        });
+        //
+        SoakReport report;
+        try {
+            // Fixed length and interval, so the soak profile does not change the control
+            report = new SoakRunner(createSettings(1500, 100), leak).run();
+        } finally {
+            release.countDown();
+        }
+        System.out.println(report);
+        //
+        Assert.assertTrue(report.isGrowing(SoakSample.Metric.LIVE_THREADS), report.toString());
+        Assert.assertTrue(report.getGrowing().contains(SoakSample.Metric.LIVE_THREADS));
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.softserve.edu.rest.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.User;
+import com.softserve.edu.rest.data.UserRepository;
+import com.softserve.edu.rest.engine.LoginResource;
+import com.softserve.edu.rest.engine.TokenlifetimeResource;
+import com.softserve.edu.rest.service.AdminService;
+import com.softserve.edu.rest.service.GuestService;
+import com.softserve.edu.rest.service.TokenManager;
+import com.softserve.edu.rest.stub.LocalTokenServer;
+
+public class TokenManagerTest {
+
+    private LocalTokenServer server;
+
+    @BeforeClass
+    public void startServer() {
+        server = new LocalTokenServer().start().bind();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetTokens() {
+        TokenManager.reset();
+        server.setTokenLifetime(Long.parseLong(LifetimeRepository.DEFAULT_TOKEN_LIFETIME));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void checkConcurrentLoginsAreCoalesced() throws Exception {
+        TokenManager tokenManager = new TokenManager(new LoginResource(), new TokenlifetimeResource());
+        TokenManager.setDefault(tokenManager);
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<CompletableFuture<String>> tokens = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tokens.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                AdminService adminService = new GuestService().SharedAdminLogin(UserRepository.getAdmin());
+                adminService.UpdateTokenlifetime(LifetimeRepository.getDefault());
+                return tokenManager.getToken(UserRepository.getAdmin());
+            }, executor));
+        }
+        start.countDown();
+        String first = tokens.get(0).get();
+        for (CompletableFuture<String> token : tokens) {
+            Assert.assertEquals(token.get(), first);
+        }
+        executor.shutdown();
+        Assert.assertEquals(tokenManager.getLogins(), 1);
+        Assert.assertEquals(server.getLoggedUsersCount(), 1);
+    }
+
+    @Test
+    public void checkTokenIsRefreshedBeforeExpiry() throws Exception {
+        server.setTokenLifetime(600);
+        TokenManager tokenManager = new TokenManager(new LoginResource(), new TokenlifetimeResource(), 0.5);
+        User admin = UserRepository.getAdmin();
+        String first = tokenManager.getToken(admin);
+        Thread.sleep(450);
+        String second = tokenManager.getToken(admin);
+        Assert.assertEquals(tokenManager.getRefreshes(), 1);
+        Assert.assertNotEquals(second, first);
+        Assert.assertEquals(tokenManager.getLogins(), 1);
+        tokenManager.shutdown();
+    }
+
+    @Test
+    public void checkServerManagersShareTimerAndAreRemoved() {
+        List<LocalTokenServer> localServers = new ArrayList<>();
+        List<TokenManager> tokenManagers = new ArrayList<>();
+        try {
+            for (int i = 0; i < 5; i++) {
+                LocalTokenServer localServer = new LocalTokenServer().start();
+                localServers.add(localServer);
+                TokenManager tokenManager = TokenManager.forServer(localServer.getUrl());
+                tokenManager.getToken(UserRepository.getAdmin());
+                tokenManagers.add(tokenManager);
+            }
+            Assert.assertTrue(refreshThreads() <= 1, "token-refresh threads " + refreshThreads());
+            //
+            // After remove() the server gets a new manager without the old tokens
+            TokenManager.remove(localServers.get(0).getUrl());
+            TokenManager tokenManager = TokenManager.forServer(localServers.get(0).getUrl());
+            Assert.assertNotSame(tokenManager, tokenManagers.get(0));
+            Assert.assertEquals(tokenManager.getLogins(), 0);
+        } finally {
+            for (LocalTokenServer localServer : localServers) {
+                TokenManager.remove(localServer.getUrl());
+                localServer.stop();
+            }
+        }
+    }
+
+    @Test
+    public void checkWrongPasswordDoesNotGetCachedToken() {
+        TokenManager tokenManager = new TokenManager(new LoginResource(), new TokenlifetimeResource());
+        User admin = UserRepository.getAdmin();
+        tokenManager.getToken(admin);
+        RuntimeException e = Assert.expectThrows(RuntimeException.class,
+                () -> tokenManager.getToken(new User(admin.getName(), admin.getPassword() + "-wrong")));
+        Assert.assertEquals(e.getMessage(), "Error Login");
+        Assert.assertEquals(tokenManager.getSharedHits(), 0);
+        tokenManager.shutdown();
+    }
+
+    // One flow logs out while the other still works with the same shared token
+    @Test
+    public void checkSharedLogoutKeepsTokenForOtherFlows() throws Exception {
+        TokenManager tokenManager = new TokenManager(new LoginResource(), new TokenlifetimeResource());
+        TokenManager.setDefault(tokenManager);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<AdminService> working = CompletableFuture.supplyAsync(
+                    () -> new GuestService().SharedAdminLogin(UserRepository.getAdmin()), executor);
+            CompletableFuture<Void> leaving = CompletableFuture.runAsync(
+                    () -> new GuestService().SharedAdminLogin(UserRepository.getAdmin()).LogoutUser(), executor);
+            AdminService adminService = working.get();
+            leaving.get();
+            Assert.assertTrue(adminService.getSession().isShared());
+            adminService.UpdateTokenlifetime(LifetimeRepository.getDefault());
+            Assert.assertEquals(adminService.getLoggedUsers(), UserRepository.getAdmin().getName());
+            Assert.assertEquals(tokenManager.getLogins(), 1);
+            Assert.assertEquals(tokenManager.getToken(UserRepository.getAdmin()),
+                    adminService.getSession().getToken());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long refreshThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("token-refresh"))
+                .count();
+    }
+
+}
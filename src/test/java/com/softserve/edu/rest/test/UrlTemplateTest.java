@@ -0,0 +1,83 @@
+package com.softserve.edu.rest.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.softserve.edu.rest.engine.UrlTemplate;
+import com.softserve.edu.rest.entity.RestParameters;
+
+import okhttp3.FormBody;
+import okio.Buffer;
+
+public class UrlTemplateTest {
+
+    @DataProvider
+    public Object[][] urlTemplates() {
+        return new Object[][] {
+            { "http://localhost:8080/tokenlifetime/", null, null,
+                "http://localhost:8080/tokenlifetime/" },
+            { "http://localhost:8080/user/{name}/items/{index}",
+                new RestParameters().addParameter("name", "admin").addParameter("index", "0"), null,
+                "http://localhost:8080/user/admin/items/0" },
+            { "http://localhost:8080/user/{name}",
+                new RestParameters().addParameter("name", "a b/c"), null,
+                "http://localhost:8080/user/a%20b%2Fc" },
+            { "http://localhost:8080/user/{name}", null, null,
+                "http://localhost:8080/user/{name}" },
+            { "http://localhost:8080/login/users", null,
+                new RestParameters().addParameter("token", "A&B=C+D"),
+                "http://localhost:8080/login/users?token=A%26B%3DC%2BD" },
+            { "http://localhost:8080/search?lang=uk", null,
+                new RestParameters().addParameter("q", "Привіт"),
+                "http://localhost:8080/search?lang=uk&q=%D0%9F%D1%80%D0%B8%D0%B2%D1%96%D1%82" },
+            { "http://localhost:8080/users", null,
+                new RestParameters().addParameter("z", "1").addParameter("a", "x y").addParameter("z", "2"),
+                "http://localhost:8080/users?z=1&a=x%20y&z=2" },
+        };
+    }
+
+    @Test(dataProvider = "urlTemplates")
+    public void checkRender(String template, RestParameters pathVariables,
+            RestParameters urlParameters, String expected) {
+        Assert.assertEquals(UrlTemplate.of(template).render(pathVariables, urlParameters), expected);
+    }
+
+    @Test
+    public void checkParametersReset() {
+        RestParameters parameters = new RestParameters().addParameter("name", "admin");
+        Assert.assertEquals(parameters.getEncoded(), "name=admin");
+        parameters.reset().addParameter("name", "user").setParameter("name", "guest");
+        Assert.assertEquals(parameters.getEncoded(), "name=guest");
+    }
+
+    @Test
+    public void checkTemplateIsCached() {
+        String template = "http://localhost:8080/user/{name}";
+        Assert.assertSame(UrlTemplate.of(template), UrlTemplate.of(new String(template)));
+        Assert.assertEquals(UrlTemplate.of(template).getVariableCount(), 1);
+    }
+
+    @Test
+    public void checkSameBytesAsFormBody() throws IOException {
+        String reserved = "a b!$'()*,;:@/?+&=~%#[]{}|^`<>\"\\-._";
+        RestParameters parameters = new RestParameters()
+                .addParameter("name", reserved)
+                .addParameter("tag", "Привіт")
+                .addParameter("tag", "x+y")
+                .addParameter("key" + reserved, "");
+        FormBody.Builder formBuilder = new FormBody.Builder();
+        for (int i = 0; i < parameters.size(); i++) {
+            formBuilder.add(parameters.getKey(i), parameters.getValue(i));
+        }
+        Buffer expected = new Buffer();
+        formBuilder.build().writeTo(expected);
+        //
+        Assert.assertEquals(new String(parameters.getEncodedBytes(), StandardCharsets.UTF_8),
+                expected.readUtf8());
+    }
+
+}
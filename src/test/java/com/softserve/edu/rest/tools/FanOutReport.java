@@ -0,0 +1,178 @@
+package com.softserve.edu.rest.tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class FanOutReport {
+
+    // Results of one check in one environment; written by the thread of that environment only
+    public static final class Outcome {
+        private final String check;
+        private final String environment;
+        private final String server;
+        private final StepStatistics statistics;
+        private final Set<String> values;
+        private String value;
+        private String error;
+
+        Outcome(String check, String environment, String server) {
+            this.check = check;
+            this.environment = environment;
+            this.server = server;
+            statistics = new StepStatistics(environment);
+            values = new LinkedHashSet<>();
+        }
+
+        void recordResult(long latencyNanos, String result) {
+            statistics.recordLatency(latencyNanos);
+            values.add(result);
+            value = result;
+        }
+
+        void recordError(Throwable e) {
+            statistics.recordError();
+            error = e.toString();
+        }
+
+        // getters
+
+        public String getCheck() {
+            return check;
+        }
+
+        public String getEnvironment() {
+            return environment;
+        }
+
+        public String getServer() {
+            return server;
+        }
+
+        public StepStatistics getStatistics() {
+            return statistics;
+        }
+
+        // Result of the last successful iteration, null if there was none
+        public String getValue() {
+            return value;
+        }
+
+        // Last error, null if there was none
+        public String getError() {
+            return error;
+        }
+
+        // All iterations answered the same
+        public boolean isStable() {
+            return values.size() <= 1;
+        }
+
+        // What is compared with the baseline, so errors in some iterations count too
+        private String summary() {
+            if (value == null) {
+                return "error: " + error;
+            }
+            String result = isStable() ? value : "unstable: " + values;
+            long errors = statistics.getErrors();
+            if (errors > 0) {
+                result += " (partial errors: " + errors + " of " + (errors + statistics.getCount())
+                        + ", last: " + error + ")";
+            }
+            return result;
+        }
+    }
+
+    // name -> server, the first one is the baseline
+    private final Map<String, String> servers;
+    private final List<String> environments;
+    private final List<String> checks;
+    private final int iterations;
+    private final List<Outcome> outcomes;
+
+    public FanOutReport(Map<String, String> servers, List<String> checks, int iterations, List<Outcome> outcomes) {
+        this.servers = new LinkedHashMap<>(servers);
+        environments = new ArrayList<>(servers.keySet());
+        this.checks = new ArrayList<>(checks);
+        this.iterations = iterations;
+        this.outcomes = new ArrayList<>(outcomes);
+    }
+
+    // getters
+
+    public List<String> getEnvironments() {
+        return Collections.unmodifiableList(environments);
+    }
+
+    public List<String> getChecks() {
+        return Collections.unmodifiableList(checks);
+    }
+
+    public String getBaseline() {
+        return environments.get(0);
+    }
+
+    public Outcome getOutcome(String check, String environment) {
+        for (Outcome outcome : outcomes) {
+            if (outcome.check.equals(check) && outcome.environment.equals(environment)) {
+                return outcome;
+            }
+        }
+        return null;
+    }
+
+    public boolean isDifferent(Outcome outcome) {
+        return !outcome.summary().equals(getOutcome(outcome.check, getBaseline()).summary());
+    }
+
+    // "check: environment" for every result that is not the one of the baseline
+    public List<String> getDifferences() {
+        List<String> differences = new ArrayList<>();
+        for (String check : checks) {
+            for (String environment : environments) {
+                if (isDifferent(getOutcome(check, environment))) {
+                    differences.add(check + ": " + environment);
+                }
+            }
+        }
+        return differences;
+    }
+
+    public boolean hasDifferences() {
+        return !getDifferences().isEmpty();
+    }
+
+    private String formatLine(Outcome outcome) {
+        StepStatistics statistics = outcome.statistics;
+        boolean measured = statistics.getCount() > 0;
+        return String.format("  %-16s %6d %6d %9.2f %9.2f %2s %s",
+                outcome.environment, statistics.getCount(), statistics.getErrors(),
+                measured ? statistics.getPercentileMillis(50) : 0.0, measured ? statistics.getMaxMillis() : 0.0,
+                isDifferent(outcome) ? "<>" : "==", outcome.summary());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("Fan-out: ").append(environments.size()).append(" environments, ")
+                .append(iterations).append(" iterations, baseline ").append(getBaseline()).append("\n");
+        for (String environment : environments) {
+            result.append("  ").append(environment).append(" = ").append(servers.get(environment)).append("\n");
+        }
+        for (String check : checks) {
+            result.append("Check: ").append(check).append("\n")
+                    .append(String.format("  %-16s %6s %6s %9s %9s %2s %s",
+                            "environment", "count", "errors", "p50 ms", "max ms", "", "result"))
+                    .append("\n");
+            for (String environment : environments) {
+                result.append(formatLine(getOutcome(check, environment))).append("\n");
+            }
+        }
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.softserve.edu.rest.tools;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import com.softserve.edu.rest.engine.RestExecutors;
+
+// Runs the same checks against several environments at once. A check is a service
+// flow that gets the server url, e.g. server -> new GuestService(server).getCurrentLifetime(),
+// so nothing reads RestUrlRepository.getServer(). Every environment has a thread of its own
+// and runs its iterations one after another; the first environment is the baseline of the diff.
+public class FanOutRunner {
+
+    private final Map<String, String> environments;
+    private final Map<String, Function<String, ?>> checks;
+    private int iterations;
+    private Function<Object, String> renderer;
+
+    public FanOutRunner() {
+        environments = new LinkedHashMap<>();
+        checks = new LinkedHashMap<>();
+        iterations = 1;
+        renderer = FanOutRunner::render;
+    }
+
+    // setters
+
+    public FanOutRunner addEnvironment(String name, String server) {
+        environments.put(name, server);
+        return this;
+    }
+
+    public FanOutRunner addCheck(String name, Function<String, ?> check) {
+        checks.put(name, check);
+        return this;
+    }
+
+    public FanOutRunner setIterations(int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    // Text of a check result, compared between environments
+    public FanOutRunner setRenderer(Function<Object, String> renderer) {
+        this.renderer = renderer;
+        return this;
+    }
+
+    // Objects without a toString() of their own, like services, are compared by class
+    public static String render(Object result) {
+        if (result == null) {
+            return "null";
+        }
+        try {
+            if (result.getClass().getMethod("toString").getDeclaringClass() == Object.class) {
+                return result.getClass().getSimpleName();
+            }
+        } catch (NoSuchMethodException e) {
+            return result.getClass().getSimpleName();
+        }
+        return result.toString();
+    }
+
+    public FanOutReport run() {
+        if (environments.isEmpty()) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Fan-out has no environments");
+        }
+        List<FanOutReport.Outcome> outcomes = new ArrayList<>();
+        ExecutorService executor = RestExecutors.newFixedExecutor(environments.size(), "fan-out");
+        List<Future<List<FanOutReport.Outcome>>> runs = new ArrayList<>();
+        try {
+            for (Map.Entry<String, String> environment : environments.entrySet()) {
+                runs.add(executor.submit(() -> runEnvironment(environment.getKey(), environment.getValue())));
+            }
+            for (Future<List<FanOutReport.Outcome>> run : runs) {
+                outcomes.addAll(run.get());
+            }
+        } catch (Exception e) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Fan-out run failed " + e.toString(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return new FanOutReport(environments, new ArrayList<>(checks.keySet()), iterations, outcomes);
+    }
+
+    private List<FanOutReport.Outcome> runEnvironment(String environment, String server) {
+        List<FanOutReport.Outcome> outcomes = new ArrayList<>();
+        for (String check : checks.keySet()) {
+            outcomes.add(new FanOutReport.Outcome(check, environment, server));
+        }
+        for (int i = 0; (i < iterations) && (!Thread.currentThread().isInterrupted()); i++) {
+            int index = 0;
+            for (Function<String, ?> check : checks.values()) {
+                FanOutReport.Outcome outcome = outcomes.get(index++);
+                long startNanos = System.nanoTime();
+                try {
+                    Object result = check.apply(server);
+                    outcome.recordResult(System.nanoTime() - startNanos, renderer.apply(result));
+                } catch (RuntimeException | AssertionError e) {
+                    // A failed TestNG assert is a result of this environment, not of the run
+                    outcome.recordError(e);
+                }
+            }
+        }
+        return outcomes;
+    }
+
+}
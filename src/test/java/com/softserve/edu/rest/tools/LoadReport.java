@@ -0,0 +1,67 @@
+package com.softserve.edu.rest.tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class LoadReport {
+
+    private final String scenarioName;
+    private final LoadSettings settings;
+    private final List<StepStatistics> steps;
+    private final StepStatistics total;
+
+    public LoadReport(String scenarioName, LoadSettings settings, List<StepStatistics> steps, StepStatistics total) {
+        this.scenarioName = scenarioName;
+        this.settings = settings;
+        this.steps = new ArrayList<>(steps);
+        this.total = total;
+    }
+
+    // getters
+
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    public LoadSettings getSettings() {
+        return settings;
+    }
+
+    public List<StepStatistics> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    public StepStatistics getTotal() {
+        return total;
+    }
+
+    // Throughput counts completed steady-state calls only, not the corrected samples
+    public double getThroughput(StepStatistics statistics) {
+        return statistics.getCount() * 1000.0 / settings.getSteadyMillis();
+    }
+
+    private String formatLine(StepStatistics statistics) {
+        return String.format("%-28s %8d %6d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                statistics.getName(), statistics.getCount(), statistics.getErrors(),
+                getThroughput(statistics), statistics.getPercentileMillis(50),
+                statistics.getPercentileMillis(99), statistics.getPercentileMillis(99.9),
+                statistics.getMaxMillis());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("Scenario: ").append(scenarioName).append("\n")
+                .append(settings).append("\n")
+                .append(String.format("%-28s %8s %6s %10s %9s %9s %9s %9s",
+                        "step", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"))
+                .append("\n");
+        for (StepStatistics statistics : steps) {
+            result.append(formatLine(statistics)).append("\n");
+        }
+        result.append(formatLine(total)).append("\n");
+        return result.toString();
+    }
+
+}
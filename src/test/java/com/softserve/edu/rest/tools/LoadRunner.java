@@ -0,0 +1,124 @@
+package com.softserve.edu.rest.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.softserve.edu.rest.engine.RestExecutors;
+
+// Closed loop: every virtual user runs the scenario, waits for the end and
+// then for its next slot. Slots are fixed in advance, so a slow response delays
+// the following iterations and the latency is measured from the missed slot.
+// Each virtual user owns a thread of RestExecutors, a virtual one if enabled.
+public class LoadRunner {
+
+    private final LoadScenario scenario;
+    private final LoadSettings settings;
+
+    public LoadRunner(LoadScenario scenario, LoadSettings settings) {
+        this.scenario = scenario;
+        this.settings = settings;
+    }
+
+    private final class Phases {
+        private final long startNanos;
+        private final long steadyStartNanos;
+        private final long steadyEndNanos;
+
+        private Phases(long startNanos) {
+            this.startNanos = startNanos;
+            steadyStartNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(settings.getRampUpMillis());
+            steadyEndNanos = steadyStartNanos + TimeUnit.MILLISECONDS.toNanos(settings.getSteadyMillis());
+        }
+
+        private long userStart(int user) {
+            return startNanos + TimeUnit.MILLISECONDS.toNanos(settings.getRampUpMillis())
+                    * user / settings.getVirtualUsers();
+        }
+
+        private long userStop(int user) {
+            return steadyEndNanos + TimeUnit.MILLISECONDS.toNanos(settings.getRampDownMillis())
+                    * user / settings.getVirtualUsers();
+        }
+
+        private boolean isSteady(long nanos) {
+            return (nanos >= steadyStartNanos) && (nanos < steadyEndNanos);
+        }
+    }
+
+    public LoadReport run() {
+        List<StepStatistics> steps = new ArrayList<>();
+        for (LoadScenario.Step step : scenario.getSteps()) {
+            steps.add(new StepStatistics(step.getName()));
+        }
+        StepStatistics total = new StepStatistics(scenario.getName() + " (total)");
+        Phases phases = new Phases(System.nanoTime());
+        ExecutorService executor = RestExecutors.newFixedExecutor(settings.getVirtualUsers(), "virtual-user");
+        List<Future<?>> users = new ArrayList<>();
+        try {
+            for (int user = 0; user < settings.getVirtualUsers(); user++) {
+                int currentUser = user;
+                users.add(executor.submit(() -> runUser(currentUser, phases, steps, total)));
+            }
+            for (Future<?> user : users) {
+                user.get();
+            }
+        } catch (Exception e) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Load run failed " + e.toString(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return new LoadReport(scenario.getName(), settings, steps, total);
+    }
+
+    private void runUser(int user, Phases phases, List<StepStatistics> steps, StepStatistics total) {
+        long intervalNanos = settings.getIntervalNanos();
+        long stopNanos = phases.userStop(user);
+        long intendedNanos = phases.userStart(user);
+        while ((intendedNanos < stopNanos) && (!Thread.currentThread().isInterrupted())) {
+            sleepUntil(intendedNanos);
+            boolean steady = phases.isSteady(intendedNanos);
+            boolean success = runIteration(steps, intervalNanos, steady);
+            if (steady) {
+                if (success) {
+                    total.recordLatency(System.nanoTime() - intendedNanos);
+                } else {
+                    total.recordError();
+                }
+            }
+            intendedNanos += intervalNanos;
+        }
+    }
+
+    private boolean runIteration(List<StepStatistics> steps, long intervalNanos, boolean steady) {
+        Object current = scenario.newStart();
+        for (int i = 0; i < steps.size(); i++) {
+            long startNanos = System.nanoTime();
+            try {
+                current = scenario.getSteps().get(i).execute(current);
+            } catch (RuntimeException e) {
+                if (steady) {
+                    steps.get(i).recordError();
+                }
+                return false;
+            }
+            if (steady) {
+                steps.get(i).recordLatency(System.nanoTime() - startNanos, intervalNanos);
+            }
+        }
+        return true;
+    }
+
+    private void sleepUntil(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        while ((remaining > 0) && (!Thread.currentThread().isInterrupted())) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadlineNanos - System.nanoTime();
+        }
+    }
+
+}
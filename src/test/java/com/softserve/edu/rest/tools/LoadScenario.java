@@ -0,0 +1,60 @@
+package com.softserve.edu.rest.tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// A flow through the service layer. Each step takes the result of the previous one,
+// e.g. GuestService -> AdminService -> AdminService -> GuestService.
+public class LoadScenario {
+
+    public static final class Step {
+        private final String name;
+        private final Function<Object, Object> action;
+
+        private Step(String name, Function<Object, Object> action) {
+            this.name = name;
+            this.action = action;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Object execute(Object previous) {
+            return action.apply(previous);
+        }
+    }
+
+    private final String name;
+    private final Supplier<?> start;
+    private final List<Step> steps;
+
+    public LoadScenario(String name, Supplier<?> start) {
+        this.name = name;
+        this.start = start;
+        steps = new ArrayList<>();
+    }
+
+    public <S> LoadScenario addStep(String name, Class<S> type, Function<S, ?> action) {
+        steps.add(new Step(name, previous -> action.apply(type.cast(previous))));
+        return this;
+    }
+
+    // getters
+
+    public String getName() {
+        return name;
+    }
+
+    public Object newStart() {
+        return start.get();
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+}
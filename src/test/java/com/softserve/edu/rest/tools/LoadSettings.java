@@ -0,0 +1,81 @@
+package com.softserve.edu.rest.tools;
+
+public class LoadSettings {
+
+    private int virtualUsers;
+    // Scenario iterations per second for all virtual users together
+    private double targetRate;
+    private long rampUpMillis;
+    private long steadyMillis;
+    private long rampDownMillis;
+
+    public LoadSettings() {
+        virtualUsers = 10;
+        targetRate = 10;
+        rampUpMillis = 5000;
+        steadyMillis = 30000;
+        rampDownMillis = 5000;
+    }
+
+    // setters
+
+    public LoadSettings setVirtualUsers(int virtualUsers) {
+        this.virtualUsers = virtualUsers;
+        return this;
+    }
+
+    public LoadSettings setTargetRate(double targetRate) {
+        this.targetRate = targetRate;
+        return this;
+    }
+
+    public LoadSettings setRampUpMillis(long rampUpMillis) {
+        this.rampUpMillis = rampUpMillis;
+        return this;
+    }
+
+    public LoadSettings setSteadyMillis(long steadyMillis) {
+        this.steadyMillis = steadyMillis;
+        return this;
+    }
+
+    public LoadSettings setRampDownMillis(long rampDownMillis) {
+        this.rampDownMillis = rampDownMillis;
+        return this;
+    }
+
+    // getters
+
+    public int getVirtualUsers() {
+        return virtualUsers;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public long getRampUpMillis() {
+        return rampUpMillis;
+    }
+
+    public long getSteadyMillis() {
+        return steadyMillis;
+    }
+
+    public long getRampDownMillis() {
+        return rampDownMillis;
+    }
+
+    // Pause between iterations of one virtual user
+    public long getIntervalNanos() {
+        return (long) (1000000000.0 * virtualUsers / targetRate);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadSettings [virtualUsers=" + virtualUsers + ", targetRate=" + targetRate
+                + ", rampUpMillis=" + rampUpMillis + ", steadyMillis=" + steadyMillis
+                + ", rampDownMillis=" + rampDownMillis + "]";
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.softserve.edu.rest.tools;
+
+import com.softserve.edu.rest.data.Lifetime;
+import com.softserve.edu.rest.data.LifetimeRepository;
+import com.softserve.edu.rest.data.RestUrlRepository;
+import com.softserve.edu.rest.data.UserRepository;
+import com.softserve.edu.rest.service.AdminService;
+import com.softserve.edu.rest.service.GuestService;
+
+public final class ScenarioRepository {
+
+    private ScenarioRepository() {
+    }
+
+    // Every iteration logs in its own copy of the admin, so tokens are not shared between users
+    public static LoadScenario getAdminLifetime() {
+        return getAdminLifetime(RestUrlRepository.getServer());
+    }
+
+    public static LoadScenario getAdminLifetime(String server) {
+        Lifetime lifetime = LifetimeRepository.getDefault();
+        return new LoadScenario("AdminLifetime", () -> new GuestService(server))
+                .addStep("SuccessfulAdminLogin", GuestService.class,
+                        guestService -> guestService.SuccessfulAdminLogin(UserRepository.getAdmin()))
+                .addStep("UpdateTokenlifetime", AdminService.class,
+                        adminService -> adminService.UpdateTokenlifetime(lifetime))
+                .addStep("getCurrentLifetime", AdminService.class,
+                        adminService -> {
+                            adminService.getCurrentLifetime();
+                            return adminService;
+                        })
+                .addStep("LogoutUser", AdminService.class, AdminService::LogoutUser);
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.softserve.edu.rest.tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SoakReport {
+
+    private final SoakSettings settings;
+    private final List<SoakSample> samples;
+
+    public SoakReport(SoakSettings settings, List<SoakSample> samples) {
+        this.settings = settings;
+        this.samples = new ArrayList<>(samples);
+    }
+
+    // getters
+
+    public SoakSettings getSettings() {
+        return settings;
+    }
+
+    public List<SoakSample> getSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    public SoakSample getLast() {
+        return samples.get(samples.size() - 1);
+    }
+
+    // Iterations per second between the sample and the one before it
+    public double getThroughput(int index) {
+        if (index == 0) {
+            return 0;
+        }
+        SoakSample previous = samples.get(index - 1);
+        SoakSample current = samples.get(index);
+        long millis = current.getElapsedMillis() - previous.getElapsedMillis();
+        return (millis <= 0) ? 0 : (current.getIterations() - previous.getIterations()) * 1000.0 / millis;
+    }
+
+    // The samples after the warm-up are cut into segments. A metric grows when the minimum
+    // of each segment is above the one before, so the saw of the heap between collections
+    // does not count, but a leak that survives every collection does.
+    public boolean isGrowing(SoakSample.Metric metric) {
+        List<SoakSample> measured = new ArrayList<>();
+        for (SoakSample sample : samples) {
+            if (sample.getElapsedMillis() >= settings.getWarmupMillis()) {
+                measured.add(sample);
+            }
+        }
+        int segments = settings.getGrowthSegments();
+        if ((segments < 2) || (measured.size() < 2 * segments)) {
+            return false;
+        }
+        long previousMinimum = Long.MIN_VALUE;
+        for (int segment = 0; segment < segments; segment++) {
+            long minimum = Long.MAX_VALUE;
+            int from = measured.size() * segment / segments;
+            int to = measured.size() * (segment + 1) / segments;
+            for (SoakSample sample : measured.subList(from, to)) {
+                minimum = Math.min(minimum, metric.valueOf(sample));
+            }
+            if ((segment > 0) && (minimum <= previousMinimum)) {
+                return false;
+            }
+            previousMinimum = minimum;
+        }
+        return true;
+    }
+
+    public List<SoakSample.Metric> getGrowing() {
+        List<SoakSample.Metric> result = new ArrayList<>();
+        for (SoakSample.Metric metric : SoakSample.Metric.values()) {
+            if (isGrowing(metric)) {
+                result.add(metric);
+            }
+        }
+        return result;
+    }
+
+    private String formatLine(int index) {
+        SoakSample sample = samples.get(index);
+        return String.format("%10.1f %10d %6d %8.1f %9.1f %6d %8d %8d %6d %7d",
+                sample.getElapsedMillis() / 1000.0, sample.getIterations(), sample.getErrors(),
+                getThroughput(index), sample.getHeapUsedBytes() / (1024.0 * 1024.0),
+                sample.getGcCount(), sample.getGcMillis(), sample.getLiveThreads(),
+                sample.getOpenFiles(), sample.getPooledConnections());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(settings).append("\n")
+                .append(String.format("%10s %10s %6s %8s %9s %6s %8s %8s %6s %7s",
+                        "time s", "iterations", "errors", "ops/s", "heap MB",
+                        "gc", "gc ms", "threads", "fds", "pooled"))
+                .append("\n");
+        for (int i = 0; i < samples.size(); i++) {
+            result.append(formatLine(i)).append("\n");
+        }
+        List<SoakSample.Metric> growing = getGrowing();
+        result.append("Growing: ").append(growing.isEmpty() ? "none" : growing.toString()).append("\n");
+        return result.toString();
+    }
+
+}
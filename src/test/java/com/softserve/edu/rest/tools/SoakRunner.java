@@ -0,0 +1,97 @@
+package com.softserve.edu.rest.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.softserve.edu.rest.engine.RestExecutors;
+
+// Loops the scenarios for hours and samples the resources of the JVM while they run.
+// Every virtual user runs all scenarios one after another, as fast as the pause allows;
+// the calling thread takes the samples, the first one before any iteration.
+public class SoakRunner {
+
+    private final List<LoadScenario> scenarios;
+    private final SoakSettings settings;
+    private final AtomicLong iterations;
+    private final AtomicLong errors;
+
+    public SoakRunner(SoakSettings settings, LoadScenario... scenarios) {
+        this.scenarios = Arrays.asList(scenarios);
+        this.settings = settings;
+        iterations = new AtomicLong();
+        errors = new AtomicLong();
+    }
+
+    public SoakReport run() {
+        List<SoakSample> samples = new ArrayList<>();
+        long startNanos = System.nanoTime();
+        long stopNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(settings.getDurationMillis());
+        samples.add(SoakSample.take(0, 0, 0));
+        ExecutorService executor = RestExecutors.newFixedExecutor(settings.getVirtualUsers(), "soak-user");
+        List<Future<?>> users = new ArrayList<>();
+        try {
+            for (int user = 0; user < settings.getVirtualUsers(); user++) {
+                users.add(executor.submit(() -> runUser(stopNanos)));
+            }
+            long sampleNanos = startNanos;
+            while (sampleNanos < stopNanos) {
+                sampleNanos = Math.min(sampleNanos
+                        + TimeUnit.MILLISECONDS.toNanos(settings.getSampleIntervalMillis()), stopNanos);
+                sleepUntil(sampleNanos);
+                samples.add(SoakSample.take(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                        iterations.get(), errors.get()));
+            }
+            for (Future<?> user : users) {
+                user.get();
+            }
+        } catch (Exception e) {
+            // TODO Develop Custom Exception
+            throw new RuntimeException("Soak run failed " + e.toString(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return new SoakReport(settings, samples);
+    }
+
+    private void runUser(long stopNanos) {
+        while ((System.nanoTime() < stopNanos) && (!Thread.currentThread().isInterrupted())) {
+            for (LoadScenario scenario : scenarios) {
+                if (runIteration(scenario)) {
+                    iterations.incrementAndGet();
+                } else {
+                    errors.incrementAndGet();
+                }
+            }
+            sleepUntil(Math.min(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getPauseMillis()),
+                    stopNanos));
+        }
+    }
+
+    private boolean runIteration(LoadScenario scenario) {
+        Object current;
+        try {
+            current = scenario.newStart();
+            for (LoadScenario.Step step : scenario.getSteps()) {
+                current = step.execute(current);
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+        return true;
+    }
+
+    private void sleepUntil(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        while ((remaining > 0) && (!Thread.currentThread().isInterrupted())) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadlineNanos - System.nanoTime();
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.softserve.edu.rest.tools;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.ToLongFunction;
+
+import com.softserve.edu.rest.engine.HttpClientRegistry;
+
+// Resource usage of this JVM at one moment, with the iterations done so far
+public final class SoakSample {
+
+    // What is watched for growth
+    public enum Metric {
+        HEAP_USED_BYTES(SoakSample::getHeapUsedBytes),
+        LIVE_THREADS(SoakSample::getLiveThreads),
+        OPEN_FILES(SoakSample::getOpenFiles),
+        POOLED_CONNECTIONS(SoakSample::getPooledConnections);
+
+        private final ToLongFunction<SoakSample> value;
+
+        Metric(ToLongFunction<SoakSample> value) {
+            this.value = value;
+        }
+
+        public long valueOf(SoakSample sample) {
+            return value.applyAsLong(sample);
+        }
+    }
+
+    private static final File FILE_DESCRIPTORS = new File("/proc/self/fd");
+
+    private final long elapsedMillis;
+    private final long iterations;
+    private final long errors;
+    private final long heapUsedBytes;
+    private final long gcCount;
+    private final long gcMillis;
+    private final long liveThreads;
+    private final long openFiles;
+    private final long pooledConnections;
+
+    private SoakSample(long elapsedMillis, long iterations, long errors) {
+        this.elapsedMillis = elapsedMillis;
+        this.iterations = iterations;
+        this.errors = errors;
+        heapUsedBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long collections = 0;
+        long collectionMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(collector.getCollectionCount(), 0);
+            collectionMillis += Math.max(collector.getCollectionTime(), 0);
+        }
+        gcCount = collections;
+        gcMillis = collectionMillis;
+        liveThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        String[] descriptors = FILE_DESCRIPTORS.list();
+        openFiles = (descriptors == null) ? -1 : descriptors.length;
+        pooledConnections = HttpClientRegistry.getPooledConnections();
+    }
+
+    // iterations and errors are the totals since the start
+    public static SoakSample take(long elapsedMillis, long iterations, long errors) {
+        return new SoakSample(elapsedMillis, iterations, errors);
+    }
+
+    // getters
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getHeapUsedBytes() {
+        return heapUsedBytes;
+    }
+
+    // Collections and their time since the JVM start, all collectors together
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcMillis() {
+        return gcMillis;
+    }
+
+    public long getLiveThreads() {
+        return liveThreads;
+    }
+
+    // -1 where /proc/self/fd does not exist
+    public long getOpenFiles() {
+        return openFiles;
+    }
+
+    public long getPooledConnections() {
+        return pooledConnections;
+    }
+
+}
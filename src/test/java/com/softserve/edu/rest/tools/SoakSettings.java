@@ -0,0 +1,89 @@
+package com.softserve.edu.rest.tools;
+
+public class SoakSettings {
+
+    private int virtualUsers;
+    private long durationMillis;
+    private long sampleIntervalMillis;
+    // Samples taken earlier are shown but not used to look for growth
+    private long warmupMillis;
+    // Pause between iterations of one virtual user
+    private long pauseMillis;
+    private int growthSegments;
+
+    public SoakSettings() {
+        virtualUsers = 2;
+        durationMillis = 4 * 3600 * 1000L;
+        sampleIntervalMillis = 60 * 1000L;
+        warmupMillis = 5 * 60 * 1000L;
+        pauseMillis = 100;
+        growthSegments = 4;
+    }
+
+    // setters
+
+    public SoakSettings setVirtualUsers(int virtualUsers) {
+        this.virtualUsers = virtualUsers;
+        return this;
+    }
+
+    public SoakSettings setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+        return this;
+    }
+
+    public SoakSettings setSampleIntervalMillis(long sampleIntervalMillis) {
+        this.sampleIntervalMillis = sampleIntervalMillis;
+        return this;
+    }
+
+    public SoakSettings setWarmupMillis(long warmupMillis) {
+        this.warmupMillis = warmupMillis;
+        return this;
+    }
+
+    public SoakSettings setPauseMillis(long pauseMillis) {
+        this.pauseMillis = pauseMillis;
+        return this;
+    }
+
+    // A metric grows when its minimum rises from every segment to the next one
+    public SoakSettings setGrowthSegments(int growthSegments) {
+        this.growthSegments = growthSegments;
+        return this;
+    }
+
+    // getters
+
+    public int getVirtualUsers() {
+        return virtualUsers;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getSampleIntervalMillis() {
+        return sampleIntervalMillis;
+    }
+
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    public long getPauseMillis() {
+        return pauseMillis;
+    }
+
+    public int getGrowthSegments() {
+        return growthSegments;
+    }
+
+    @Override
+    public String toString() {
+        return "SoakSettings [virtualUsers=" + virtualUsers + ", durationMillis=" + durationMillis
+                + ", sampleIntervalMillis=" + sampleIntervalMillis + ", warmupMillis=" + warmupMillis
+                + ", pauseMillis=" + pauseMillis + ", growthSegments=" + growthSegments + "]";
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.softserve.edu.rest.tools;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// Latencies in microseconds, recorded from many threads without locks.
+// The histogram also holds the corrected samples, so it is for percentiles only;
+// getCount() is the number of calls that really completed.
+public class StepStatistics {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = 3600L * 1000000L;
+
+    private final String name;
+    private final Histogram histogram;
+    private final AtomicLong completions;
+    private final AtomicLong errors;
+
+    public StepStatistics(String name) {
+        this.name = name;
+        histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        completions = new AtomicLong();
+        errors = new AtomicLong();
+    }
+
+    // For latencies already measured from the intended start time
+    public void recordLatency(long latencyNanos) {
+        histogram.recordValue(Math.min(latencyNanos / 1000, HIGHEST_TRACKABLE_MICROS));
+        completions.incrementAndGet();
+    }
+
+    // Adds the samples the stalled virtual user would have sent had it kept its pace
+    public void recordLatency(long latencyNanos, long expectedIntervalNanos) {
+        histogram.recordValueWithExpectedInterval(
+                Math.min(latencyNanos / 1000, HIGHEST_TRACKABLE_MICROS),
+                expectedIntervalNanos / 1000);
+        completions.incrementAndGet();
+    }
+
+    public void recordError() {
+        errors.incrementAndGet();
+    }
+
+    // getters
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return completions.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    public double getPercentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double getMaxMillis() {
+        return histogram.getMaxValue() / 1000.0;
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+}